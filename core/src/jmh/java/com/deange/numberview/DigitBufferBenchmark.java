@@ -0,0 +1,93 @@
+package com.deange.numberview;
+
+import com.deange.numberview.digits.Digit;
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.GlyphSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Digit extraction throughput for {@code digits} numbers shown at once, such as a board of
+ * counters all updating on the same frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DigitBufferBenchmark {
+
+    @Param({"1", "10", "1000"})
+    public int digits;
+
+    private long[] mNumbers;
+    private DigitBuffer[] mBuffers;
+    private DigitBuffer[] mCounters;
+    private GlyphSet mGlyphs;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        mNumbers = new long[digits];
+        mBuffers = new DigitBuffer[digits];
+        mCounters = new DigitBuffer[digits];
+        mGlyphs = Digits.getGlyphSet();
+        for (int i = 0; i < digits; i++) {
+            mNumbers[i] = random.nextLong();
+            mBuffers[i] = new DigitBuffer();
+
+            // Halved so that counting up never overflows
+            mCounters[i] = new DigitBuffer();
+            mCounters[i].set(mGlyphs, mNumbers[i] >> 1, 0, true, 1);
+        }
+    }
+
+    @Benchmark
+    public int extract() {
+        int length = 0;
+        for (int i = 0; i < digits; i++) {
+            length += mBuffers[i].set(mGlyphs, mNumbers[i], 0, false, 1);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int extractFixedPointGrouped() {
+        int length = 0;
+        for (int i = 0; i < digits; i++) {
+            length += mBuffers[i].set(mGlyphs, mNumbers[i], 2, true, 1);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int extractAndRead() {
+        int hash = 0;
+        for (int i = 0; i < digits; i++) {
+            final DigitBuffer buffer = mBuffers[i];
+            final int length = buffer.set(mGlyphs, mNumbers[i], 0, false, 1);
+            for (int j = 0; j < length; j++) {
+                final Digit digit = buffer.get(j);
+                hash += System.identityHashCode(digit);
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int increment() {
+        int changed = 0;
+        for (int i = 0; i < digits; i++) {
+            changed += mCounters[i].add(1);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,84 @@
+package com.deange.numberview;
+
+import com.deange.numberview.digits.Digit;
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.GlyphSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry lookups for {@code digits} characters, through both the global registry and a
+ * glyph set held by a view.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlyphSetBenchmark {
+
+    private static final String CHARACTERS = "0123456789-.,";
+
+    @Param({"1", "10", "1000"})
+    public int digits;
+
+    private char[] mCharacters;
+    private Digit[] mDigits;
+    private GlyphSet mGlyphs;
+
+    @Setup
+    public void setUp() {
+        mGlyphs = Digits.getGlyphSet();
+        mCharacters = new char[digits];
+        mDigits = new Digit[digits];
+        for (int i = 0; i < digits; i++) {
+            mCharacters[i] = CHARACTERS.charAt(i % CHARACTERS.length());
+            mDigits[i] = mGlyphs.forChar(mCharacters[i]);
+        }
+    }
+
+    @Benchmark
+    public int forChar() {
+        int hash = 0;
+        for (int i = 0; i < digits; i++) {
+            hash += System.identityHashCode(mGlyphs.forChar(mCharacters[i]));
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int forCharGlobal() {
+        int hash = 0;
+        for (int i = 0; i < digits; i++) {
+            hash += System.identityHashCode(Digits.forChar(mCharacters[i]));
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int forInt() {
+        int hash = 0;
+        for (int i = 0; i < digits; i++) {
+            hash += System.identityHashCode(mGlyphs.forInt(i % 10));
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public float glyphFor() {
+        float sum = 0;
+        for (int i = 0; i < digits; i++) {
+            final Glyph glyph = mGlyphs.glyphFor(mDigits[i]);
+            sum += glyph.getWidth();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,108 @@
+package com.deange.numberview;
+
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.MorphTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-frame cost of animating {@code digits} digits at once, as done by each view on
+ * every animation frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolationBenchmark {
+
+    private static final int LINES_PER_CUBIC = 8;
+
+    @Param({"1", "10", "1000"})
+    public int digits;
+
+    private float[][] mFrom;
+    private float[][] mDeltas;
+    private Glyph[] mFromGlyphs;
+    private Glyph[] mToGlyphs;
+    private float[] mFrame;
+    private float[] mLines;
+    private MorphTable mMorphTable;
+    private float mFactor;
+
+    @Setup
+    public void setUp() {
+        final List<Glyph> glyphs = Digits.glyphs();
+        mFrom = new float[digits][];
+        mDeltas = new float[digits][Glyph.SIZE];
+        mFromGlyphs = new Glyph[digits];
+        mToGlyphs = new Glyph[digits];
+
+        for (int i = 0; i < digits; i++) {
+            mFromGlyphs[i] = glyphs.get(i % glyphs.size());
+            mToGlyphs[i] = glyphs.get((i * 7 + 3) % glyphs.size());
+            mFrom[i] = mFromGlyphs[i].getData();
+            Glyph.delta(mFromGlyphs[i], mToGlyphs[i], mDeltas[i]);
+        }
+
+        mFrame = new float[Glyph.SIZE];
+        mLines = new float[Glyph.flattenedSize(Glyph.SEGMENTS, LINES_PER_CUBIC)];
+        mMorphTable = new MorphTable();
+    }
+
+    @Benchmark
+    public float interpolate() {
+        final float factor = nextFactor();
+        for (int i = 0; i < digits; i++) {
+            Glyph.interpolate(mFrom[i], mDeltas[i], factor, mFrame);
+        }
+        return mFrame[0];
+    }
+
+    @Benchmark
+    public int interpolateAndFlatten() {
+        final float factor = nextFactor();
+        int written = 0;
+        for (int i = 0; i < digits; i++) {
+            Glyph.interpolate(mFrom[i], mDeltas[i], factor, mFrame);
+            written += Glyph.flatten(mFrame, LINES_PER_CUBIC, 1f, 0f, 0f, mLines);
+        }
+        return written;
+    }
+
+    @Benchmark
+    public float startTransitions() {
+        float sum = 0;
+        for (int i = 0; i < digits; i++) {
+            Glyph.delta(mFromGlyphs[i], mToGlyphs[i], mDeltas[i]);
+            sum += mDeltas[i][0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float startTransitionsWithMorphTable() {
+        float sum = 0;
+        for (int i = 0; i < digits; i++) {
+            sum += mMorphTable.get(mFromGlyphs[i], mToGlyphs[i])[0];
+        }
+        return sum;
+    }
+
+    private float nextFactor() {
+        mFactor += 1f / 60f;
+        if (mFactor > 1f) {
+            mFactor = 0f;
+        }
+        return mFactor;
+    }
+}
@@ -0,0 +1,272 @@
+package com.deange.numberview;
+
+import com.deange.numberview.digits.Digit;
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.GlyphSet;
+
+/**
+ * Splits fixed-point numbers into digits, from least to most significant, using only integer
+ * arithmetic and a reused buffer.
+ * <p>
+ * Numbers can also be changed in place with {@link #add}, which only rewrites the digits
+ * touched by carry or borrow propagation.
+ */
+public final class DigitBuffer {
+
+    // Enough for any long with a sign, a decimal point and grouping separators
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private Digit[] mDigits = new Digit[DEFAULT_CAPACITY];
+    private int mLength;
+    private GlyphSet mGlyphs = Digits.getGlyphSet();
+
+    // The number last written with set(), and how it was laid out
+    private long mUnscaled;
+    private int mScale;
+    private boolean mGrouping;
+    private int mMinLength;
+    private int mIntegerDigits;
+
+    /**
+     * Fills this buffer with {@code unscaled * 10^-scale} drawn from {@code glyphs}, padding the integer part with zeros
+     * up to {@code minLength} digits in total.
+     *
+     * @return the number of digits written
+     */
+    public int set(
+            final GlyphSet glyphs,
+            final long unscaled,
+            final int scale,
+            final boolean grouping,
+            final int minLength) {
+        checkScale(scale);
+
+        mGlyphs = glyphs;
+        mUnscaled = unscaled;
+        mScale = scale;
+        mGrouping = grouping;
+        mMinLength = minLength;
+        mLength = 0;
+        final boolean negative = unscaled < 0;
+        final int signLength = negative ? 1 : 0;
+
+        // Work with the negative magnitude so that Long.MIN_VALUE needs no special case
+        long n = negative ? unscaled : -unscaled;
+
+        for (int i = 0; i < scale; i++) {
+            append(glyphs.forInt((int) -(n % 10)));
+            n /= 10;
+        }
+        if (scale > 0) {
+            append(glyphs.decimalPoint());
+        }
+
+        int integerDigits = 0;
+        do {
+            if (grouping && integerDigits > 0 && integerDigits % 3 == 0) {
+                append(glyphs.groupingSeparator());
+            }
+            append(glyphs.forInt((int) -(n % 10)));
+            n /= 10;
+            integerDigits++;
+        } while (n != 0 || mLength + signLength < minLength);
+        mIntegerDigits = integerDigits;
+
+        if (negative) {
+            append(glyphs.minus());
+        }
+
+        return mLength;
+    }
+
+    /**
+     * Adds {@code delta} to the number in this buffer, laid out as it was by the last call to
+     * {@link #set}. Only the digits changed by carry or borrow propagation are rewritten, and
+     * digits are added or removed at the most significant end as the number grows or shrinks,
+     * so repeatedly adding small deltas takes amortized constant time. The whole buffer is only
+     * rewritten if the sign changes.
+     *
+     * @return the number of digits, counting from the least significant, that may have
+     * changed, including any that were removed
+     * @throws ArithmeticException if the result overflows a {@code long}
+     */
+    public int add(final long delta) {
+        final long sum = checkedAdd(mUnscaled, delta);
+        if (delta == 0) {
+            return 0;
+        }
+
+        final int oldLength = mLength;
+        if (mLength == 0 || (mUnscaled < 0) != (sum < 0)) {
+            return Math.max(oldLength, set(mGlyphs, sum, mScale, mGrouping, mMinLength));
+        }
+
+        // The magnitude grows when adding towards the sign of the number
+        final boolean grow = (delta > 0) == (mUnscaled >= 0);
+        final int integerDigits = mIntegerDigits;
+        mUnscaled = sum;
+
+        // Work with the negative magnitude so that Long.MIN_VALUE needs no special case
+        long d = (delta > 0) ? -delta : delta;
+        int carry = 0;
+        int place = 0;
+        int changed = 0;
+        while (d != 0 || carry != 0) {
+            final int step = (int) -(d % 10) + carry;
+            d /= 10;
+
+            final boolean exists = place < mScale + mIntegerDigits;
+            int value = (exists ? valueAt(indexOf(place)) : 0) + (grow ? step : -step);
+            carry = 0;
+            if (value >= 10) {
+                value -= 10;
+                carry = 1;
+            } else if (value < 0) {
+                value += 10;
+                carry = 1;
+            }
+
+            if (exists) {
+                final int index = indexOf(place);
+                mDigits[index] = mGlyphs.forInt(value);
+                changed = index + 1;
+            } else {
+                appendIntegerDigit(value);
+                changed = mLength;
+            }
+            place++;
+        }
+
+        if (!grow) {
+            trimLeadingZeros();
+        }
+
+        // Moving the sign or adding or removing digits changes everything up to the top
+        return (mIntegerDigits != integerDigits) ? Math.max(oldLength, mLength) : changed;
+    }
+
+    public void clear() {
+        mLength = 0;
+    }
+
+    public int length() {
+        return mLength;
+    }
+
+    /**
+     * Returns the digit at {@code index}, counting from the least significant digit, or
+     * an empty digit past the end of the number.
+     */
+    public Digit get(final int index) {
+        return (index < mLength) ? mDigits[index] : mGlyphs.empty();
+    }
+
+    /**
+     * Whether the number in this buffer was last laid out with these settings, so that it can
+     * be changed with {@link #add}.
+     */
+    public boolean isLaidOut(final GlyphSet glyphs, final boolean grouping, final int minLength) {
+        return mGlyphs == glyphs && mGrouping == grouping && mMinLength == minLength;
+    }
+
+    /* package */ static long checkedAdd(final long a, final long b) {
+        final long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return sum;
+    }
+
+    /**
+     * Returns {@code unscaled * 10^-fromScale} as a fixed-point number with {@code toScale}
+     * decimal places. Extra decimal places are truncated, and numbers too large for the new
+     * scale saturate at {@code Long.MIN_VALUE} or {@code Long.MAX_VALUE}.
+     */
+    /* package */ static long rescale(final long unscaled, final int fromScale, final int toScale) {
+        long result = unscaled;
+        for (int i = fromScale; i > toScale; i--) {
+            result /= 10;
+        }
+        for (int i = fromScale; i < toScale && result != 0; i++) {
+            if (result > Long.MAX_VALUE / 10) {
+                return Long.MAX_VALUE;
+            }
+            if (result < Long.MIN_VALUE / 10) {
+                return Long.MIN_VALUE;
+            }
+            result *= 10;
+        }
+        return result;
+    }
+
+    /* package */ static void checkScale(final int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("Scale cannot be negative");
+        }
+    }
+
+    /**
+     * The index of the digit at {@code place}, counting decimal places from the least
+     * significant and skipping the decimal point and any grouping separators.
+     */
+    private int indexOf(final int place) {
+        if (place < mScale) {
+            return place;
+        }
+
+        final int integerPlace = place - mScale;
+        final int index = (mScale > 0) ? mScale + 1 + integerPlace : integerPlace;
+        return mGrouping ? index + integerPlace / 3 : index;
+    }
+
+    private int valueAt(final int index) {
+        return mDigits[index].getChar() - '0';
+    }
+
+    private boolean isNegative() {
+        return mUnscaled < 0;
+    }
+
+    private void appendIntegerDigit(final int value) {
+        // The sign always comes last, so it is put back after the new digit
+        if (isNegative()) {
+            mLength--;
+        }
+        if (mGrouping && mIntegerDigits % 3 == 0) {
+            append(mGlyphs.groupingSeparator());
+        }
+        append(mGlyphs.forInt(value));
+        mIntegerDigits++;
+        if (isNegative()) {
+            append(mGlyphs.minus());
+        }
+    }
+
+    private void trimLeadingZeros() {
+        final int signLength = isNegative() ? 1 : 0;
+        while (mIntegerDigits > 1 && valueAt(indexOf(mScale + mIntegerDigits - 1)) == 0) {
+            // The separator below the top digit goes with it
+            final int removed = (mGrouping && (mIntegerDigits - 1) % 3 == 0) ? 2 : 1;
+
+            // Keep zeros that set() would have padded the number with
+            if (mLength - removed < mMinLength) {
+                break;
+            }
+
+            mLength -= removed + signLength;
+            mIntegerDigits--;
+            if (signLength > 0) {
+                append(mGlyphs.minus());
+            }
+        }
+    }
+
+    private void append(final Digit digit) {
+        if (mLength == mDigits.length) {
+            final Digit[] digits = new Digit[mDigits.length * 2];
+            System.arraycopy(mDigits, 0, digits, 0, mLength);
+            mDigits = digits;
+        }
+        mDigits[mLength++] = digit;
+    }
+}
@@ -0,0 +1,35 @@
+package com.deange.numberview.digits;
+
+import static com.deange.numberview.digits.Glyph.DEFAULT_WIDTH;
+
+/* package */ class Comma implements Digit {
+
+    private final float[][] POINTS = { { 20, 170 }, { 20, 176 }, { 18.5f, 183 }, { 15.5f, 190 }, { 11, 196 } };
+    private final float[][] CONTROLS1 = { { 20, 170 }, { 20, 178 }, { 17.5f, 185.5f }, { 14, 192 } };
+    private final float[][] CONTROLS2 = { { 20, 176 }, { 19.5f, 181 }, { 16.5f, 188 }, { 11, 196 } };
+
+    @Override
+    public float[][] getPoints() {
+        return POINTS;
+    }
+
+    @Override
+    public float[][] getControlPoints1() {
+        return CONTROLS1;
+    }
+
+    @Override
+    public float[][] getControlPoints2() {
+        return CONTROLS2;
+    }
+
+    @Override
+    public float getWidth() {
+        return DEFAULT_WIDTH / 4f;
+    }
+
+    @Override
+    public char getChar() {
+        return ',';
+    }
+}
@@ -0,0 +1,99 @@
+package com.deange.numberview.digits;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+public final class Digits {
+
+    private static final Logger LOG = Logger.getLogger("Digits");
+
+    private static final Object LOCK = new Object();
+
+    // Replaced, never modified, on every registration so that readers need no locking
+    private static volatile GlyphSet sGlyphs = GlyphSet.of();
+
+    static {
+        register(new Zero());
+        register(new One());
+        register(new Two());
+        register(new Three());
+        register(new Four());
+        register(new Five());
+        register(new Six());
+        register(new Seven());
+        register(new Eight());
+        register(new Nine());
+        register(new Minus());
+        register(new Point());
+        register(new Comma());
+        register(new Empty());
+    }
+
+    private Digits() {
+        throw new AssertionError();
+    }
+
+    public static void register(final Digit digit) {
+        final char character = digit.getChar();
+        final Glyph oldValue;
+        synchronized (LOCK) {
+            oldValue = sGlyphs.get(character);
+            sGlyphs = sGlyphs.with(digit);
+        }
+        if (oldValue != null) {
+            LOG.warning("Replacing existing digit " + oldValue.getDigit() + " for character '" + character + "'");
+        }
+    }
+
+    /**
+     * Registers every glyph in {@code pack} for characters that have no registered digit,
+     * replacing any pack registered before. Glyphs are decoded on first use.
+     */
+    public static void register(final GlyphPack pack) {
+        synchronized (LOCK) {
+            sGlyphs = sGlyphs.withPack(pack);
+        }
+    }
+
+    /**
+     * Returns a snapshot of every registered glyph, which can be extended with
+     * {@link GlyphSet#with(Digit)} to give individual views their own glyphs.
+     */
+    public static GlyphSet getGlyphSet() {
+        return sGlyphs;
+    }
+
+    public static Digit empty() {
+        return sGlyphs.empty();
+    }
+
+    public static Digit forChar(final char character) {
+        return sGlyphs.forChar(character);
+    }
+
+    public static List<Glyph> glyphs() {
+        return sGlyphs.glyphs();
+    }
+
+    public static Glyph glyphFor(final Digit digit) {
+        // Registered digits reuse the geometry packed at registration time
+        return sGlyphs.glyphFor(digit);
+    }
+
+    public static Digit minus() {
+        return sGlyphs.minus();
+    }
+
+    public static Digit decimalPoint() {
+        return sGlyphs.decimalPoint();
+    }
+
+    public static Digit groupingSeparator() {
+        return sGlyphs.groupingSeparator();
+    }
+
+    public static Digit forInt(final int digit) {
+        return sGlyphs.forInt(digit);
+    }
+
+}
@@ -1,10 +1,8 @@
 package com.deange.numberview.digits;
 
-import com.deange.numberview.NumberView;
-
 /* package */ class Empty implements Digit {
 
-    private static final float[] F = { NumberView.DEFAULT_WIDTH / 8f, NumberView.DEFAULT_HEIGHT / 2f };
+    private static final float[] F = { Glyph.DEFAULT_WIDTH / 8f, Glyph.DEFAULT_HEIGHT / 2f };
     private static final float[][] POINTS = new float[][]{ F.clone(), F.clone(), F.clone(), F.clone(), F.clone() };
     private static final float[][] CONTROLS1 = new float[][]{ F.clone(), F.clone(), F.clone(), F.clone() };
     private static final float[][] CONTROLS2 = new float[][]{ F.clone(), F.clone(), F.clone(), F.clone() };
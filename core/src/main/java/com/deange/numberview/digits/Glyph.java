@@ -0,0 +1,330 @@
+package com.deange.numberview.digits;
+
+/**
+ * Packed, immutable geometry for a {@link Digit}.
+ * <p>
+ * All anchor and control points are flattened into a single {@code float[]} laid out in the
+ * same order that the path is built: the starting anchor, followed by one
+ * {@code (control1, control2, anchor)} triple per cubic segment.
+ * <p>
+ * Glyphs may have any number of segments. Only glyphs with the same number of segments can be
+ * morphed into each other, so {@link GlyphSet} resamples the glyphs it holds to a common count
+ * with {@link #resample(int)}.
+ */
+public final class Glyph {
+
+    // The size of the box that glyph coordinates are given in
+    public static final float DEFAULT_WIDTH = 140f;
+    public static final float DEFAULT_HEIGHT = 200f;
+
+    // The number of segments in the built-in glyphs
+    public static final int SEGMENTS = 4;
+    public static final int POINTS = 1 + SEGMENTS * 3;
+    public static final int SIZE = POINTS * 2;
+
+    // Level of detail for flattened glyphs, in lines per cubic per unit of scale
+    private static final float LINES_PER_SCALE = 8f;
+    private static final int MIN_LINES_PER_CUBIC = 2;
+    private static final int MAX_LINES_PER_CUBIC = 24;
+
+    private final Digit mDigit;
+    private final float[] mData;
+    private final float mWidth;
+    private final int mSegments;
+
+    private Glyph(final Digit digit, final float[] data) {
+        mDigit = digit;
+        mData = data;
+        mWidth = digit.getWidth();
+        mSegments = segmentCount(data);
+    }
+
+    /**
+     * Wraps already packed {@code data} for {@code digit}, without copying it.
+     */
+    /* package */ static Glyph wrap(final Digit digit, final float[] data) {
+        return new Glyph(digit, data);
+    }
+
+    public static Glyph of(final Digit digit) {
+        if (digit == null) {
+            throw new IllegalArgumentException("digit cannot be null");
+        }
+
+        final float[][] points = digit.getPoints();
+        final float[][] controls1 = digit.getControlPoints1();
+        final float[][] controls2 = digit.getControlPoints2();
+
+        final int segments = points.length - 1;
+        if (segments < 1 || controls1.length != segments || controls2.length != segments) {
+            throw new IllegalArgumentException("Digit '" + digit.getChar() + "' must have one pair of "
+                    + "control points per segment, and at least one segment");
+        }
+
+        final float[] data = new float[sizeOf(segments)];
+        data[0] = points[0][0];
+        data[1] = points[0][1];
+
+        for (int i = 0, j = 2; i < segments; i++, j += 6) {
+            data[j] = controls1[i][0];
+            data[j + 1] = controls1[i][1];
+            data[j + 2] = controls2[i][0];
+            data[j + 3] = controls2[i][1];
+            data[j + 4] = points[i + 1][0];
+            data[j + 5] = points[i + 1][1];
+        }
+
+        return new Glyph(digit, data);
+    }
+
+    /**
+     * The length of packed point data for {@code segments} cubic segments.
+     */
+    public static int sizeOf(final int segments) {
+        return 2 + segments * 6;
+    }
+
+    /**
+     * The number of cubic segments in the packed point data {@code data}.
+     */
+    public static int segmentCount(final float[] data) {
+        return (data.length - 2) / 6;
+    }
+
+    /**
+     * Writes {@code to - from} into {@code out}, for use with {@link #interpolate}. Both glyphs
+     * must have the same number of segments.
+     */
+    public static void delta(final Glyph from, final Glyph to, final float[] out) {
+        if (from.mSegments != to.mSegments) {
+            throw new IllegalArgumentException("Cannot morph '" + from.getChar() + "' with " + from.mSegments
+                    + " segments into '" + to.getChar() + "' with " + to.mSegments + " segments");
+        }
+        delta(from.mData, to.mData, out);
+    }
+
+    /**
+     * Writes {@code to - from} into {@code out}, where {@code from} and {@code to} are packed
+     * point data of the same length, such as that returned by {@link #getData()}.
+     */
+    public static void delta(final float[] from, final float[] to, final float[] out) {
+        for (int i = 0; i < to.length; i++) {
+            out[i] = to[i] - from[i];
+        }
+    }
+
+    /**
+     * Writes {@code from + factor * delta} into {@code out}.
+     */
+    public static void interpolate(final float[] from, final float[] delta, final float factor, final float[] out) {
+        for (int i = 0; i < from.length; i++) {
+            out[i] = from[i] + factor * delta[i];
+        }
+    }
+
+    /**
+     * Returns the packed point data {@code data} split into {@code segments} cubic segments,
+     * which must be at least as many as it already has, or {@code data} itself if it has
+     * exactly as many.
+     * <p>
+     * Cubics are split rather than approximated, so the resampled shape is identical. The
+     * extra segments go to whichever cubics are longest at the time.
+     */
+    public static float[] resample(final float[] data, final int segments) {
+        final int current = segmentCount(data);
+        if (segments == current) {
+            return data;
+        }
+        if (segments < current) {
+            throw new IllegalArgumentException("Cannot resample " + current + " segments to " + segments);
+        }
+
+        // Control polygon lengths are a cheap upper bound on the length of each cubic
+        final float[] lengths = new float[current];
+        final int[] pieces = new int[current];
+        for (int i = 0, j = 2; i < current; i++, j += 6) {
+            lengths[i] = distance(data, j - 2, j) + distance(data, j, j + 2) + distance(data, j + 2, j + 4);
+            pieces[i] = 1;
+        }
+
+        for (int extra = segments - current; extra > 0; extra--) {
+            int longest = 0;
+            for (int i = 1; i < current; i++) {
+                if (lengths[i] * pieces[longest] > lengths[longest] * pieces[i]) {
+                    longest = i;
+                }
+            }
+            pieces[longest]++;
+        }
+
+        final float[] out = new float[sizeOf(segments)];
+        out[0] = data[0];
+        out[1] = data[1];
+        for (int i = 0, o = 2; i < current; i++) {
+            o = subdivide(data, 2 + i * 6, pieces[i], out, o);
+        }
+        return out;
+    }
+
+    /**
+     * The number of lines per cubic used to flatten glyphs drawn at {@code scale}.
+     */
+    public static int linesPerCubic(final float scale) {
+        final int lines = (int) Math.ceil(scale * LINES_PER_SCALE);
+        return Math.max(MIN_LINES_PER_CUBIC, Math.min(MAX_LINES_PER_CUBIC, lines));
+    }
+
+    /**
+     * The number of floats written by {@link #flatten} for {@code lines} lines per cubic, for
+     * glyphs of {@code segments} cubic segments.
+     */
+    public static int flattenedSize(final int segments, final int lines) {
+        return segments * lines * 4;
+    }
+
+    /**
+     * Flattens the packed point data in {@code frame} into {@code lines} straight lines per
+     * cubic, in the format taken by {@code Canvas#drawLines}. Each point is mapped to
+     * {@code (scale * x + dx, scale * y + dy)}.
+     *
+     * @return the number of floats written to {@code out}
+     */
+    public static int flatten(
+            final float[] frame,
+            final int lines,
+            final float scale,
+            final float dx,
+            final float dy,
+            final float[] out) {
+
+        int o = 0;
+        float x0 = scale * frame[0] + dx;
+        float y0 = scale * frame[1] + dy;
+
+        for (int i = 2; i < frame.length; i += 6) {
+            // The previous anchor starts this cubic
+            final float p0x = frame[i - 2];
+            final float p0y = frame[i - 1];
+            final float c1x = frame[i];
+            final float c1y = frame[i + 1];
+            final float c2x = frame[i + 2];
+            final float c2y = frame[i + 3];
+            final float p1x = frame[i + 4];
+            final float p1y = frame[i + 5];
+
+            for (int s = 1; s <= lines; s++) {
+                final float t = (float) s / lines;
+                final float u = 1 - t;
+                final float b0 = u * u * u;
+                final float b1 = 3 * u * u * t;
+                final float b2 = 3 * u * t * t;
+                final float b3 = t * t * t;
+
+                final float x1 = scale * (b0 * p0x + b1 * c1x + b2 * c2x + b3 * p1x) + dx;
+                final float y1 = scale * (b0 * p0y + b1 * c1y + b2 * c2y + b3 * p1y) + dy;
+
+                out[o++] = x0;
+                out[o++] = y0;
+                out[o++] = x1;
+                out[o++] = y1;
+                x0 = x1;
+                y0 = y1;
+            }
+        }
+
+        return o;
+    }
+
+    /**
+     * Returns this glyph split into {@code segments} cubic segments, as described in
+     * {@link #resample(float[], int)}.
+     */
+    public Glyph resample(final int segments) {
+        return (segments == mSegments) ? this : new Glyph(mDigit, resample(mData, segments));
+    }
+
+    public Digit getDigit() {
+        return mDigit;
+    }
+
+    /**
+     * The packed point data. This array is shared and must not be modified.
+     */
+    public float[] getData() {
+        return mData;
+    }
+
+    public float getWidth() {
+        return mWidth;
+    }
+
+    public int getSegmentCount() {
+        return mSegments;
+    }
+
+    public char getChar() {
+        return mDigit.getChar();
+    }
+
+    private static float distance(final float[] data, final int from, final int to) {
+        final float dx = data[to] - data[from];
+        final float dy = data[to + 1] - data[from + 1];
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Splits the cubic whose control points start at {@code data[i]} into {@code pieces} cubics
+     * of equal parameter length, writing them to {@code out} from {@code o}.
+     *
+     * @return the index after the last value written
+     */
+    private static int subdivide(final float[] data, final int i, final int pieces, final float[] out, int o) {
+        float p0x = data[i - 2];
+        float p0y = data[i - 1];
+        float c1x = data[i];
+        float c1y = data[i + 1];
+        float c2x = data[i + 2];
+        float c2y = data[i + 3];
+        final float p1x = data[i + 4];
+        final float p1y = data[i + 5];
+
+        // Split off the first of the remaining pieces with de Casteljau's algorithm
+        for (int remaining = pieces; remaining > 1; remaining--) {
+            final float t = 1f / remaining;
+            final float q0x = p0x + t * (c1x - p0x);
+            final float q0y = p0y + t * (c1y - p0y);
+            final float q1x = c1x + t * (c2x - c1x);
+            final float q1y = c1y + t * (c2y - c1y);
+            final float q2x = c2x + t * (p1x - c2x);
+            final float q2y = c2y + t * (p1y - c2y);
+            final float r0x = q0x + t * (q1x - q0x);
+            final float r0y = q0y + t * (q1y - q0y);
+            final float r1x = q1x + t * (q2x - q1x);
+            final float r1y = q1y + t * (q2y - q1y);
+            final float sx = r0x + t * (r1x - r0x);
+            final float sy = r0y + t * (r1y - r0y);
+
+            out[o++] = q0x;
+            out[o++] = q0y;
+            out[o++] = r0x;
+            out[o++] = r0y;
+            out[o++] = sx;
+            out[o++] = sy;
+
+            p0x = sx;
+            p0y = sy;
+            c1x = r1x;
+            c1y = r1y;
+            c2x = q2x;
+            c2y = q2y;
+        }
+
+        out[o++] = c1x;
+        out[o++] = c1y;
+        out[o++] = c2x;
+        out[o++] = c2y;
+        out[o++] = p1x;
+        out[o++] = p1y;
+        return o;
+    }
+}
@@ -0,0 +1,255 @@
+package com.deange.numberview.digits;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A read-only pack of glyphs in a compact binary format, read in place from a buffer such as a
+ * memory-mapped file.
+ * <p>
+ * Opening a pack only checks its header. Each glyph is decoded straight into its packed
+ * {@link Glyph} data the first time it is looked up, so packs of hundreds of glyphs cost almost
+ * nothing until they are drawn. Add a pack to a {@link GlyphSet} with
+ * {@link GlyphSet#withPack(GlyphPack)}, or globally with {@link Digits#register(GlyphPack)}.
+ * Packs are safe to use from any thread.
+ * <p>
+ * The format is big-endian:
+ * <pre>
+ * header   magic "NVGP", u16 version, u16 segments, u32 glyph count, f32 quantum
+ * index    per glyph, sorted by character: u16 character, s16 quantized width
+ * data     per glyph, in index order: s16 quantized x and y for every packed point
+ * </pre>
+ * Coordinates are stored as multiples of the quantum, in glyph units. Every glyph in a pack
+ * has the same number of cubic segments; {@link #write} resamples glyphs with fewer.
+ */
+public final class GlyphPack {
+
+    private static final int MAGIC = ('N' << 24) | ('V' << 16) | ('G' << 8) | 'P';
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 4;
+
+    // Fine enough to be invisible at any practical text size
+    private static final float DEFAULT_QUANTUM = 1f / 64f;
+
+    private final ByteBuffer mBuffer;
+    private final int mCount;
+    private final int mSegments;
+    private final float mQuantum;
+    private final int mDataOffset;
+    private final int mGlyphSize;
+
+    // Glyphs are decoded with this many segments, which may be more than are stored
+    private final int mDecodedSegments;
+    private final AtomicReferenceArray<Glyph> mGlyphs;
+
+    private GlyphPack(
+            final ByteBuffer buffer,
+            final int count,
+            final int segments,
+            final float quantum,
+            final int decodedSegments) {
+        mBuffer = buffer;
+        mCount = count;
+        mSegments = segments;
+        mQuantum = quantum;
+        mDataOffset = HEADER_SIZE + count * INDEX_ENTRY_SIZE;
+        mGlyphSize = Glyph.sizeOf(segments) * 2;
+        mDecodedSegments = decodedSegments;
+        mGlyphs = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Opens the pack held in the remaining bytes of {@code buffer}, which is used in place and
+     * must not be modified afterwards.
+     */
+    public static GlyphPack open(final ByteBuffer buffer) {
+        final ByteBuffer pack = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        if (pack.remaining() < HEADER_SIZE || pack.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a glyph pack");
+        }
+
+        final int version = pack.getShort(4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported glyph pack version " + version);
+        }
+
+        final int segments = pack.getShort(6) & 0xFFFF;
+        final int count = pack.getInt(8);
+        final float quantum = pack.getFloat(12);
+        final long size = HEADER_SIZE + (long) count * (INDEX_ENTRY_SIZE + Glyph.sizeOf(segments) * 2);
+        if (segments < 1 || count < 0 || !(quantum > 0) || pack.remaining() < size) {
+            throw new IllegalArgumentException("Glyph pack is truncated or corrupt");
+        }
+
+        return new GlyphPack(pack, count, segments, quantum, segments);
+    }
+
+    /**
+     * Opens the pack in {@code file} by mapping it into memory.
+     */
+    public static GlyphPack open(final File file) throws IOException {
+        final RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            // The mapping remains valid after the file is closed
+            final FileChannel channel = in.getChannel();
+            return open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes {@code digits} as a glyph pack to {@code out}.
+     */
+    public static void write(final OutputStream out, final Collection<? extends Digit> digits) throws IOException {
+        final List<Glyph> glyphs = new ArrayList<>(digits.size());
+        int segments = 1;
+        for (final Digit digit : digits) {
+            final Glyph glyph = Glyph.of(digit);
+            glyphs.add(glyph);
+            segments = Math.max(segments, glyph.getSegmentCount());
+        }
+
+        float max = 0;
+        for (int i = 0; i < glyphs.size(); i++) {
+            final Glyph glyph = glyphs.get(i).resample(segments);
+            glyphs.set(i, glyph);
+            max = Math.max(max, Math.abs(glyph.getWidth()));
+            for (final float value : glyph.getData()) {
+                max = Math.max(max, Math.abs(value));
+            }
+        }
+
+        Collections.sort(glyphs, new Comparator<Glyph>() {
+            @Override
+            public int compare(final Glyph lhs, final Glyph rhs) {
+                return lhs.getChar() - rhs.getChar();
+            }
+        });
+        for (int i = 1; i < glyphs.size(); i++) {
+            if (glyphs.get(i).getChar() == glyphs.get(i - 1).getChar()) {
+                throw new IllegalArgumentException("Duplicate glyph for character '" + glyphs.get(i).getChar() + "'");
+            }
+        }
+
+        // Use the default precision unless some coordinate would not fit in a short
+        final float quantum = Math.max(DEFAULT_QUANTUM, max / Short.MAX_VALUE);
+
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(segments);
+        data.writeInt(glyphs.size());
+        data.writeFloat(quantum);
+
+        for (final Glyph glyph : glyphs) {
+            data.writeShort(glyph.getChar());
+            data.writeShort(quantize(glyph.getWidth(), quantum));
+        }
+        for (final Glyph glyph : glyphs) {
+            for (final float value : glyph.getData()) {
+                data.writeShort(quantize(value, quantum));
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Returns a view of this pack that decodes glyphs resampled to {@code segments} cubic
+     * segments, sharing the same buffer.
+     */
+    /* package */ GlyphPack withSegmentCount(final int segments) {
+        if (segments == mDecodedSegments) {
+            return this;
+        }
+        return new GlyphPack(mBuffer, mCount, mSegments, mQuantum, segments);
+    }
+
+    public int size() {
+        return mCount;
+    }
+
+    /**
+     * The number of cubic segments stored for every glyph in this pack.
+     */
+    public int getSegmentCount() {
+        return mSegments;
+    }
+
+    /**
+     * The character of the glyph at {@code index}, in ascending order.
+     */
+    public char charAt(final int index) {
+        return mBuffer.getChar(HEADER_SIZE + index * INDEX_ENTRY_SIZE);
+    }
+
+    public boolean contains(final char character) {
+        return indexOf(character) >= 0;
+    }
+
+    /**
+     * Returns the glyph for {@code character}, decoding it on first use, or {@code null} if
+     * this pack has none.
+     */
+    public Glyph get(final char character) {
+        final int index = indexOf(character);
+        if (index < 0) {
+            return null;
+        }
+
+        Glyph glyph = mGlyphs.get(index);
+        if (glyph == null) {
+            // Racing threads decode identical glyphs, and only the first one is kept
+            mGlyphs.compareAndSet(index, null, decode(index, character));
+            glyph = mGlyphs.get(index);
+        }
+        return glyph;
+    }
+
+    private int indexOf(final char character) {
+        int low = 0;
+        int high = mCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final char value = charAt(mid);
+            if (value < character) {
+                low = mid + 1;
+            } else if (value > character) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private Glyph decode(final int index, final char character) {
+        final float width = mQuantum * mBuffer.getShort(HEADER_SIZE + index * INDEX_ENTRY_SIZE + 2);
+
+        final float[] data = new float[Glyph.sizeOf(mSegments)];
+        final int offset = mDataOffset + index * mGlyphSize;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = mQuantum * mBuffer.getShort(offset + i * 2);
+        }
+
+        return Glyph.wrap(new PackedDigit(character, width, data), Glyph.resample(data, mDecodedSegments));
+    }
+
+    private static short quantize(final float value, final float quantum) {
+        return (short) Math.round(value / quantum);
+    }
+}
@@ -0,0 +1,204 @@
+package com.deange.numberview.digits;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable set of {@link Glyph}s, indexed by character.
+ * <p>
+ * ASCII characters are stored in a dense array and all others in a sorted array, so lookups
+ * never box a {@code Character} and are safe from any thread. Sets are never modified once
+ * created; {@link #with(Digit)} returns a copy instead.
+ * <p>
+ * Every glyph in a set has the same number of cubic segments, so any two of them can be morphed
+ * with a fixed-length interpolation. Digits with fewer segments than the rest are resampled
+ * when they are added, and adding one with more resamples the whole set.
+ */
+public final class GlyphSet {
+
+    private static final int DENSE_SIZE = 128;
+
+    private static final GlyphSet EMPTY = new GlyphSet(new Glyph[DENSE_SIZE], new char[0], new Glyph[0], null, 1);
+
+    private final Glyph[] mDense;
+    private final char[] mSparseKeys;
+    private final Glyph[] mSparseValues;
+    private final GlyphPack mPack;
+    private final int mSegments;
+
+    private GlyphSet(
+            final Glyph[] dense,
+            final char[] sparseKeys,
+            final Glyph[] sparseValues,
+            final GlyphPack pack,
+            final int segments) {
+        mDense = dense;
+        mSparseKeys = sparseKeys;
+        mSparseValues = sparseValues;
+        mPack = pack;
+        mSegments = segments;
+    }
+
+    public static GlyphSet of(final Digit... digits) {
+        GlyphSet set = EMPTY;
+        for (final Digit digit : digits) {
+            set = set.with(digit);
+        }
+        return set;
+    }
+
+    /**
+     * Returns a copy of this set with {@code digit} added, replacing any glyph for the same
+     * character.
+     */
+    public GlyphSet with(final Digit digit) {
+        final Glyph glyph = Glyph.of(digit);
+        final int segments = glyph.getSegmentCount();
+        return (segments > mSegments)
+                ? resample(segments).put(glyph)
+                : put(glyph.resample(mSegments));
+    }
+
+    private GlyphSet put(final Glyph glyph) {
+        final char character = glyph.getChar();
+
+        if (character < DENSE_SIZE) {
+            final Glyph[] dense = mDense.clone();
+            dense[character] = glyph;
+            return new GlyphSet(dense, mSparseKeys, mSparseValues, mPack, mSegments);
+        }
+
+        final int index = Arrays.binarySearch(mSparseKeys, character);
+        if (index >= 0) {
+            final Glyph[] values = mSparseValues.clone();
+            values[index] = glyph;
+            return new GlyphSet(mDense, mSparseKeys, values, mPack, mSegments);
+        }
+
+        final int insertAt = -index - 1;
+        final int length = mSparseKeys.length;
+        final char[] keys = new char[length + 1];
+        final Glyph[] values = new Glyph[length + 1];
+        System.arraycopy(mSparseKeys, 0, keys, 0, insertAt);
+        System.arraycopy(mSparseValues, 0, values, 0, insertAt);
+        keys[insertAt] = character;
+        values[insertAt] = glyph;
+        System.arraycopy(mSparseKeys, insertAt, keys, insertAt + 1, length - insertAt);
+        System.arraycopy(mSparseValues, insertAt, values, insertAt + 1, length - insertAt);
+        return new GlyphSet(mDense, keys, values, mPack, mSegments);
+    }
+
+    /**
+     * Returns a copy of this set that falls back to {@code pack} for characters it has no
+     * glyph for, replacing any pack added before.
+     */
+    public GlyphSet withPack(final GlyphPack pack) {
+        final int segments = pack.getSegmentCount();
+        final GlyphSet set = (segments > mSegments) ? resample(segments) : this;
+        return new GlyphSet(set.mDense, set.mSparseKeys, set.mSparseValues,
+                pack.withSegmentCount(set.mSegments), set.mSegments);
+    }
+
+    private GlyphSet resample(final int segments) {
+        final Glyph[] dense = new Glyph[DENSE_SIZE];
+        for (int i = 0; i < DENSE_SIZE; i++) {
+            dense[i] = (mDense[i] == null) ? null : mDense[i].resample(segments);
+        }
+
+        final Glyph[] values = new Glyph[mSparseValues.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = mSparseValues[i].resample(segments);
+        }
+
+        final GlyphPack pack = (mPack == null) ? null : mPack.withSegmentCount(segments);
+        return new GlyphSet(dense, mSparseKeys, values, pack, segments);
+    }
+
+    /**
+     * The number of cubic segments in every glyph of this set.
+     */
+    public int getSegmentCount() {
+        return mSegments;
+    }
+
+    /**
+     * Returns the glyph for {@code character}, or {@code null} if there is none.
+     */
+    public Glyph get(final char character) {
+        final Glyph glyph;
+        if (character < DENSE_SIZE) {
+            glyph = mDense[character];
+        } else {
+            final int index = Arrays.binarySearch(mSparseKeys, character);
+            glyph = (index >= 0) ? mSparseValues[index] : null;
+        }
+        return (glyph == null && mPack != null) ? mPack.get(character) : glyph;
+    }
+
+    public Digit forChar(final char character) {
+        final Glyph glyph = get(character);
+        return (glyph == null) ? null : glyph.getDigit();
+    }
+
+    public Digit forInt(final int digit) {
+        if (digit < 0 || digit > 9) {
+            throw new IllegalArgumentException("Digit must be between 0 and 9");
+        }
+        return forChar((char) ('0' + digit));
+    }
+
+    public Digit empty() {
+        return forChar('\0');
+    }
+
+    public Digit minus() {
+        return forChar('-');
+    }
+
+    public Digit decimalPoint() {
+        return forChar('.');
+    }
+
+    public Digit groupingSeparator() {
+        return forChar(',');
+    }
+
+    /**
+     * Returns the packed geometry for {@code digit}, reusing the glyph in this set if
+     * {@code digit} is the instance it was created from. Other digits are resampled to the
+     * segment count of this set unless they have more segments.
+     */
+    public Glyph glyphFor(final Digit digit) {
+        final Glyph glyph = get(digit.getChar());
+        if (glyph != null && glyph.getDigit() == digit) {
+            return glyph;
+        }
+
+        final Glyph unregistered = Glyph.of(digit);
+        return unregistered.resample(Math.max(mSegments, unregistered.getSegmentCount()));
+    }
+
+    public List<Glyph> glyphs() {
+        final List<Glyph> glyphs = new ArrayList<>();
+        for (final Glyph glyph : mDense) {
+            if (glyph != null) {
+                glyphs.add(glyph);
+            }
+        }
+        Collections.addAll(glyphs, mSparseValues);
+
+        if (mPack != null) {
+            // Decodes every glyph of the pack that is not overridden by this set
+            for (int i = 0; i < mPack.size(); i++) {
+                final char character = mPack.charAt(i);
+                final Glyph glyph = get(character);
+                if (glyph.getDigit() instanceof PackedDigit) {
+                    glyphs.add(glyph);
+                }
+            }
+        }
+        return glyphs;
+    }
+}
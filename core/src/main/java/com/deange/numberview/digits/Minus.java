@@ -0,0 +1,35 @@
+package com.deange.numberview.digits;
+
+import static com.deange.numberview.digits.Glyph.DEFAULT_WIDTH;
+
+/* package */ class Minus implements Digit {
+
+    private final float[][] POINTS = { { 12, 100 }, { 23.5f, 100 }, { 35, 100 }, { 46.5f, 100 }, { 58, 100 } };
+    private final float[][] CONTROLS1 = { { 12, 100 }, { 23.5f, 100 }, { 35, 100 }, { 46.5f, 100 } };
+    private final float[][] CONTROLS2 = { { 23.5f, 100 }, { 35, 100 }, { 46.5f, 100 }, { 58, 100 } };
+
+    @Override
+    public float[][] getPoints() {
+        return POINTS;
+    }
+
+    @Override
+    public float[][] getControlPoints1() {
+        return CONTROLS1;
+    }
+
+    @Override
+    public float[][] getControlPoints2() {
+        return CONTROLS2;
+    }
+
+    @Override
+    public float getWidth() {
+        return DEFAULT_WIDTH / 2f;
+    }
+
+    @Override
+    public char getChar() {
+        return '-';
+    }
+}
@@ -0,0 +1,263 @@
+package com.deange.numberview.digits;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bounded, shared cache of transition geometry between pairs of {@link Glyph}s.
+ * <p>
+ * Morphs are linear in the animation factor, so the delta between two glyphs is an exact
+ * representation of every keyframe of the transition; a view only needs a table lookup when a
+ * transition starts and a single multiply-add per coordinate when drawing.
+ * <p>
+ * Entries are evicted in least-recently-used order once {@code maxSize} pairs are stored.
+ * Lookups are keyed by primitive glyph pairs, so a hit allocates nothing. This class is
+ * thread-safe.
+ */
+public final class MorphTable {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private final int mMaxSize;
+
+    // Entries are stored in slots, chained from a hash table and linked from eldest to newest
+    private long[] mKeys;
+    private Entry[] mValues;
+    private int[] mNextInBucket;
+    private int[] mBefore;
+    private int[] mAfter;
+    private int[] mBuckets;
+    private int mSize;
+    private int mEldest = NONE;
+    private int mNewest = NONE;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    public MorphTable() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public MorphTable(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+
+        mMaxSize = maxSize;
+        allocate(Math.min(maxSize, INITIAL_CAPACITY));
+    }
+
+    /**
+     * Returns the delta from {@code from} to {@code to}, which must have the same number of
+     * segments as any two glyphs of one {@link GlyphSet} do. The returned array is shared and
+     * must not be modified.
+     */
+    public float[] get(final Glyph from, final Glyph to) {
+        final long key = key(from, to);
+
+        synchronized (this) {
+            final int slot = find(key);
+            // A glyph may have been replaced through Digits.register since this entry was made
+            if (slot != NONE && mValues[slot].from == from && mValues[slot].to == to) {
+                mHitCount++;
+                moveToNewest(slot);
+                return mValues[slot].delta;
+            }
+            mMissCount++;
+        }
+
+        final Entry entry = new Entry(from, to);
+        synchronized (this) {
+            put(key, entry);
+        }
+        return entry.delta;
+    }
+
+    /**
+     * Precomputes every transition between the currently registered glyphs on a background
+     * thread, which is typically done once at application start.
+     */
+    public Thread warmUp() {
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final List<Glyph> glyphs = Digits.glyphs();
+                for (final Glyph from : glyphs) {
+                    for (final Glyph to : glyphs) {
+                        get(from, to);
+                    }
+                }
+            }
+        }, "MorphTable-warmUp");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(mBuckets, NONE);
+        Arrays.fill(mValues, null);
+        mSize = 0;
+        mEldest = NONE;
+        mNewest = NONE;
+    }
+
+    public synchronized int size() {
+        return mSize;
+    }
+
+    public int maxSize() {
+        return mMaxSize;
+    }
+
+    public synchronized int hitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int missCount() {
+        return mMissCount;
+    }
+
+    public synchronized int evictionCount() {
+        return mEvictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final int accesses = mHitCount + mMissCount;
+        final int hitPercent = (accesses == 0) ? 0 : (100 * mHitCount / accesses);
+        return "MorphTable[size=" + mSize + ",maxSize=" + mMaxSize + ",hits=" + mHitCount
+                + ",misses=" + mMissCount + ",hitRate=" + hitPercent + "%]";
+    }
+
+    private static long key(final Glyph from, final Glyph to) {
+        return ((long) from.getChar() << 16) | to.getChar();
+    }
+
+    private int bucketOf(final long key) {
+        // Spread the two characters across the low bits before masking
+        final int hash = (int) (key ^ (key >>> 16)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (mBuckets.length - 1);
+    }
+
+    private int find(final long key) {
+        for (int slot = mBuckets[bucketOf(key)]; slot != NONE; slot = mNextInBucket[slot]) {
+            if (mKeys[slot] == key) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+
+    private void put(final long key, final Entry entry) {
+        int slot = find(key);
+        if (slot != NONE) {
+            mValues[slot] = entry;
+            moveToNewest(slot);
+            return;
+        }
+
+        if (mSize < mKeys.length) {
+            slot = mSize++;
+        } else if (mSize < mMaxSize) {
+            allocate(Math.min(mMaxSize, mKeys.length * 2));
+            slot = mSize++;
+        } else {
+            // Reuse the slot of the least recently used entry
+            slot = mEldest;
+            unlink(slot);
+            unchain(slot);
+            mEvictionCount++;
+        }
+
+        mKeys[slot] = key;
+        mValues[slot] = entry;
+        final int bucket = bucketOf(key);
+        mNextInBucket[slot] = mBuckets[bucket];
+        mBuckets[bucket] = slot;
+        linkNewest(slot);
+    }
+
+    private void moveToNewest(final int slot) {
+        if (slot != mNewest) {
+            unlink(slot);
+            linkNewest(slot);
+        }
+    }
+
+    private void linkNewest(final int slot) {
+        mBefore[slot] = mNewest;
+        mAfter[slot] = NONE;
+        if (mNewest != NONE) {
+            mAfter[mNewest] = slot;
+        } else {
+            mEldest = slot;
+        }
+        mNewest = slot;
+    }
+
+    private void unlink(final int slot) {
+        final int before = mBefore[slot];
+        final int after = mAfter[slot];
+        if (before != NONE) {
+            mAfter[before] = after;
+        } else {
+            mEldest = after;
+        }
+        if (after != NONE) {
+            mBefore[after] = before;
+        } else {
+            mNewest = before;
+        }
+    }
+
+    private void unchain(final int slot) {
+        final int bucket = bucketOf(mKeys[slot]);
+        if (mBuckets[bucket] == slot) {
+            mBuckets[bucket] = mNextInBucket[slot];
+            return;
+        }
+        for (int prev = mBuckets[bucket]; prev != NONE; prev = mNextInBucket[prev]) {
+            if (mNextInBucket[prev] == slot) {
+                mNextInBucket[prev] = mNextInBucket[slot];
+                return;
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        final int size = mSize;
+        mKeys = (mKeys == null) ? new long[capacity] : Arrays.copyOf(mKeys, capacity);
+        mValues = (mValues == null) ? new Entry[capacity] : Arrays.copyOf(mValues, capacity);
+        mBefore = (mBefore == null) ? new int[capacity] : Arrays.copyOf(mBefore, capacity);
+        mAfter = (mAfter == null) ? new int[capacity] : Arrays.copyOf(mAfter, capacity);
+        mNextInBucket = new int[capacity];
+
+        // Keep the table at most half full, rechaining every stored entry
+        mBuckets = new int[Integer.highestOneBit(Math.max(1, capacity - 1)) << 2];
+        Arrays.fill(mBuckets, NONE);
+        for (int slot = 0; slot < size; slot++) {
+            final int bucket = bucketOf(mKeys[slot]);
+            mNextInBucket[slot] = mBuckets[bucket];
+            mBuckets[bucket] = slot;
+        }
+    }
+
+    private static final class Entry {
+        final Glyph from;
+        final Glyph to;
+        final float[] delta;
+
+        Entry(final Glyph from, final Glyph to) {
+            this.from = from;
+            this.to = to;
+            this.delta = new float[to.getData().length];
+            Glyph.delta(from, to, delta);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.deange.numberview.digits;
 
-import static com.deange.numberview.NumberView.DEFAULT_WIDTH;
+import static com.deange.numberview.digits.Glyph.DEFAULT_WIDTH;
 
 /* package */ class One implements Digit {
 
@@ -0,0 +1,67 @@
+package com.deange.numberview.digits;
+
+/**
+ * A digit decoded from a {@link GlyphPack}, backed directly by its packed glyph data.
+ */
+/* package */ final class PackedDigit implements Digit {
+
+    private final char mChar;
+    private final float mWidth;
+    private final float[] mData;
+
+    /* package */ PackedDigit(final char character, final float width, final float[] data) {
+        mChar = character;
+        mWidth = width;
+        mData = data;
+    }
+
+    @Override
+    public float[][] getPoints() {
+        final int segments = Glyph.segmentCount(mData);
+        final float[][] points = new float[segments + 1][];
+        points[0] = point(0);
+        for (int i = 0; i < segments; i++) {
+            points[i + 1] = point(2 + i * 6 + 4);
+        }
+        return points;
+    }
+
+    @Override
+    public float[][] getControlPoints1() {
+        final int segments = Glyph.segmentCount(mData);
+        final float[][] points = new float[segments][];
+        for (int i = 0; i < segments; i++) {
+            points[i] = point(2 + i * 6);
+        }
+        return points;
+    }
+
+    @Override
+    public float[][] getControlPoints2() {
+        final int segments = Glyph.segmentCount(mData);
+        final float[][] points = new float[segments][];
+        for (int i = 0; i < segments; i++) {
+            points[i] = point(2 + i * 6 + 2);
+        }
+        return points;
+    }
+
+    @Override
+    public float getWidth() {
+        return mWidth;
+    }
+
+    @Override
+    public char getChar() {
+        return mChar;
+    }
+
+    private float[] point(final int index) {
+        return new float[]{ mData[index], mData[index + 1] };
+    }
+
+    @Override
+    public String toString() {
+        return "PackedDigit{'" + mChar + "'}";
+    }
+}
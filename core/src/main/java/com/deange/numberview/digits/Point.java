@@ -0,0 +1,35 @@
+package com.deange.numberview.digits;
+
+import static com.deange.numberview.digits.Glyph.DEFAULT_WIDTH;
+
+/* package */ class Point implements Digit {
+
+    private final float[][] POINTS = { { 12.5f, 175 }, { 17.5f, 170 }, { 22.5f, 175 }, { 17.5f, 180 }, { 12.5f, 175 } };
+    private final float[][] CONTROLS1 = { { 12.5f, 172.24f }, { 20.26f, 170 }, { 22.5f, 177.76f }, { 14.74f, 180 } };
+    private final float[][] CONTROLS2 = { { 14.74f, 170 }, { 22.5f, 172.24f }, { 20.26f, 180 }, { 12.5f, 177.76f } };
+
+    @Override
+    public float[][] getPoints() {
+        return POINTS;
+    }
+
+    @Override
+    public float[][] getControlPoints1() {
+        return CONTROLS1;
+    }
+
+    @Override
+    public float[][] getControlPoints2() {
+        return CONTROLS2;
+    }
+
+    @Override
+    public float getWidth() {
+        return DEFAULT_WIDTH / 4f;
+    }
+
+    @Override
+    public char getChar() {
+        return '.';
+    }
+}
@@ -0,0 +1,241 @@
+package com.deange.numberview.render;
+
+import com.deange.numberview.digits.Glyph;
+
+import java.util.Locale;
+
+/**
+ * The geometry of a single exported frame: one interpolated glyph per digit slot, along with
+ * where each slot is drawn and how it is stroked.
+ * <p>
+ * Glyphs are mapped into the frame as {@code NumberView} maps them onto its canvas, so the
+ * paths and lines produced here are the ones a device strokes for the same factor. Rasterized
+ * frames approximate that stroke, see {@link #rasterizeCoverage()}.
+ */
+public final class Frame {
+
+    private final int mIndex;
+    private final int mWidth;
+    private final int mHeight;
+    private final float mScale;
+    private final float[][] mGlyphs;
+    private final float[] mOffsets;
+    private final float mOffsetY;
+    private final float mStrokeWidth;
+    private final int mColor;
+    private final int mBackgroundColor;
+
+    /* package */ Frame(
+            final int index,
+            final int width,
+            final int height,
+            final float scale,
+            final float[][] glyphs,
+            final float[] offsets,
+            final float offsetY,
+            final float strokeWidth,
+            final int color,
+            final int backgroundColor) {
+        mIndex = index;
+        mWidth = width;
+        mHeight = height;
+        mScale = scale;
+        mGlyphs = glyphs;
+        mOffsets = offsets;
+        mOffsetY = offsetY;
+        mStrokeWidth = strokeWidth;
+        mColor = color;
+        mBackgroundColor = backgroundColor;
+    }
+
+    public int getIndex() {
+        return mIndex;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public int getColor() {
+        return mColor;
+    }
+
+    public int getBackgroundColor() {
+        return mBackgroundColor;
+    }
+
+    public float getStrokeWidth() {
+        return mStrokeWidth;
+    }
+
+    /**
+     * The glyphs of this frame flattened into straight lines, in the format taken by
+     * {@code Canvas#drawLines}. This is what {@code NumberView.RENDER_MODE_LINES} draws.
+     */
+    public float[] getLines() {
+        final int lines = Glyph.linesPerCubic(mScale);
+        int size = 0;
+        for (final float[] glyph : mGlyphs) {
+            size += Glyph.flattenedSize(Glyph.segmentCount(glyph), lines);
+        }
+
+        int count = 0;
+        final float[] out = new float[size];
+        for (int i = 0; i < mGlyphs.length; i++) {
+            final float[] slot = new float[Glyph.flattenedSize(Glyph.segmentCount(mGlyphs[i]), lines)];
+            final int written = Glyph.flatten(mGlyphs[i], lines, mScale, mOffsets[i], mOffsetY, slot);
+            System.arraycopy(slot, 0, out, count, written);
+            count += written;
+        }
+        return out;
+    }
+
+    /**
+     * The glyphs of this frame as SVG path data, one subpath per digit.
+     */
+    public String getPathData() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < mGlyphs.length; i++) {
+            final float[] glyph = mGlyphs[i];
+            sb.append('M');
+            appendPoint(sb, glyph, 0, mOffsets[i]);
+            for (int j = 2; j < glyph.length; j += 6) {
+                sb.append('C');
+                appendPoint(sb, glyph, j, mOffsets[i]);
+                sb.append(' ');
+                appendPoint(sb, glyph, j + 2, mOffsets[i]);
+                sb.append(' ');
+                appendPoint(sb, glyph, j + 4, mOffsets[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This frame as a standalone SVG document.
+     */
+    public String toSvg() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\"")
+                .append(" width=\"").append(mWidth).append('"')
+                .append(" height=\"").append(mHeight).append('"')
+                .append(" viewBox=\"0 0 ").append(mWidth).append(' ').append(mHeight).append("\">");
+
+        if (alpha(mBackgroundColor) != 0) {
+            sb.append("<rect width=\"100%\" height=\"100%\"");
+            appendFill(sb, "fill", mBackgroundColor);
+            sb.append("/>");
+        }
+
+        sb.append("<path fill=\"none\"")
+                .append(" stroke-width=\"").append(format(mStrokeWidth)).append('"');
+        appendFill(sb, "stroke", mColor);
+        sb.append(" d=\"").append(getPathData()).append("\"/>");
+
+        sb.append("</svg>");
+        return sb.toString();
+    }
+
+    /**
+     * Rasterizes this frame into a coverage mask of {@code width * height} bytes, from 0 where
+     * no stroke is drawn to 255 where a pixel is fully covered.
+     * <p>
+     * Glyphs are stroked like {@code NumberView}'s default paint, with butt caps and miter
+     * joins, from curves flattened to within a tenth of a pixel. Edge pixels are shaded from
+     * 16 samples each, so antialiasing can differ from a device by a few shades.
+     */
+    public byte[] rasterizeCoverage() {
+        final StrokeRasterizer rasterizer = new StrokeRasterizer(mWidth, mHeight, mStrokeWidth);
+        for (int i = 0; i < mGlyphs.length; i++) {
+            rasterizer.strokeGlyph(mGlyphs[i], mScale, mOffsets[i], mOffsetY);
+        }
+        return rasterizer.getCoverage();
+    }
+
+    /**
+     * Rasterizes this frame into {@code width * height} non-premultiplied ARGB pixels, with the
+     * stroke color composited over the background color.
+     */
+    public int[] rasterize() {
+        final byte[] coverage = rasterizeCoverage();
+        final int[] palette = palette(mColor, mBackgroundColor);
+
+        final int[] pixels = new int[coverage.length];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = palette[coverage[i] & 0xFF];
+        }
+        return pixels;
+    }
+
+    /**
+     * The 256 colors produced by compositing {@code color} over {@code backgroundColor} at each
+     * level of coverage.
+     */
+    /* package */ static int[] palette(final int color, final int backgroundColor) {
+        final int[] palette = new int[256];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = composite(color, backgroundColor, i / 255f);
+        }
+        return palette;
+    }
+
+    private static int composite(final int color, final int backgroundColor, final float coverage) {
+        final float srcAlpha = alpha(color) / 255f * coverage;
+        final float dstAlpha = alpha(backgroundColor) / 255f * (1 - srcAlpha);
+        final float outAlpha = srcAlpha + dstAlpha;
+        if (outAlpha == 0) {
+            return 0;
+        }
+
+        final int r = Math.round((red(color) * srcAlpha + red(backgroundColor) * dstAlpha) / outAlpha);
+        final int g = Math.round((green(color) * srcAlpha + green(backgroundColor) * dstAlpha) / outAlpha);
+        final int b = Math.round((blue(color) * srcAlpha + blue(backgroundColor) * dstAlpha) / outAlpha);
+        return (Math.round(outAlpha * 255) << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private void appendPoint(final StringBuilder sb, final float[] glyph, final int index, final float offsetX) {
+        // Same mapping as the matrix in NumberView, followed by the position of the slot
+        sb.append(format(mScale * glyph[index] + offsetX))
+                .append(',')
+                .append(format(mScale * glyph[index + 1] + mOffsetY));
+    }
+
+    private static void appendFill(final StringBuilder sb, final String attribute, final int color) {
+        sb.append(' ').append(attribute).append("=\"")
+                .append(String.format(Locale.US, "#%06x", color & 0xFFFFFF)).append('"');
+        if (alpha(color) != 0xFF) {
+            sb.append(' ').append(attribute).append("-opacity=\"")
+                    .append(format(alpha(color) / 255f)).append('"');
+        }
+    }
+
+    private static String format(final float value) {
+        // Round to a thousandth of a pixel, and drop trailing zeros to keep paths compact
+        final String formatted = String.format(Locale.US, "%.3f", value);
+        int end = formatted.length();
+        while (formatted.charAt(end - 1) == '0') end--;
+        if (formatted.charAt(end - 1) == '.') end--;
+        final String trimmed = formatted.substring(0, end);
+        return "-0".equals(trimmed) ? "0" : trimmed;
+    }
+
+    /* package */ static int alpha(final int color) {
+        return color >>> 24;
+    }
+
+    /* package */ static int red(final int color) {
+        return (color >> 16) & 0xFF;
+    }
+
+    /* package */ static int green(final int color) {
+        return (color >> 8) & 0xFF;
+    }
+
+    /* package */ static int blue(final int color) {
+        return color & 0xFF;
+    }
+}
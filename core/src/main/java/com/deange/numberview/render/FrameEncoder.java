@@ -0,0 +1,29 @@
+package com.deange.numberview.render;
+
+import java.io.IOException;
+
+/**
+ * Turns rendered frames into an output format.
+ * <p>
+ * {@link #encode} is called from the renderer's worker threads, in any order and possibly
+ * concurrently, and should do as much of the work as possible. {@link #write} is then called
+ * on the rendering thread, once per frame and in frame order, with the result.
+ */
+public interface FrameEncoder<T> {
+
+    /**
+     * Called once before any frames are encoded.
+     *
+     * @param frameRate the number of frames per second of the animation
+     */
+    void start(int width, int height, int frameCount, int frameRate) throws IOException;
+
+    T encode(Frame frame) throws IOException;
+
+    void write(Frame frame, T encoded) throws IOException;
+
+    /**
+     * Called once after every frame has been written.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,380 @@
+package com.deange.numberview.render;
+
+import com.deange.numberview.DigitBuffer;
+import com.deange.numberview.digits.Digit;
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.GlyphSet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Renders counter animations without a device, for exporting them as images or video.
+ * <p>
+ * A renderer animates through a sequence of values, laying digits out from right to left
+ * like a {@code NumberViewGroup} and animating each one like a {@code NumberView}. Frames are
+ * built and encoded in parallel on a {@link ForkJoinPool}, then handed to a
+ * {@link FrameEncoder} in order. Only a small window of frames is in flight at any time, so
+ * long animations can be streamed to disk without holding them in memory.
+ * <p>
+ * A scale of 1 draws digits at {@code NumberView}'s default size. To match a view, use the
+ * view's text size divided by {@link Glyph#DEFAULT_WIDTH}.
+ */
+public final class FrameRenderer {
+
+    public static final int DEFAULT_FRAME_RATE = 60;
+    public static final long DEFAULT_DURATION = 500L;
+
+    /**
+     * Maps the linear progress of a transition to the factor used to draw it, like an Android
+     * {@code TimeInterpolator}.
+     */
+    public interface Easing {
+        float getInterpolation(float input);
+    }
+
+    public static final Easing LINEAR = new Easing() {
+        @Override
+        public float getInterpolation(final float input) {
+            return input;
+        }
+    };
+
+    /**
+     * The same curve as {@code AccelerateDecelerateInterpolator}, which {@code NumberView}
+     * uses by default.
+     */
+    public static final Easing ACCELERATE_DECELERATE = new Easing() {
+        @Override
+        public float getInterpolation(final float input) {
+            return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+    };
+
+    private GlyphSet mGlyphSet = Digits.getGlyphSet();
+    private ForkJoinPool mPool;
+    private Easing mEasing = ACCELERATE_DECELERATE;
+    private float mScale = 1f;
+    private float mStrokeWidth = 2f;
+    private int mColor = 0xFF000000;
+    private int mBackgroundColor = 0;
+    private int mPadding = -1;
+    private int mFrameRate = DEFAULT_FRAME_RATE;
+    private long mDuration = DEFAULT_DURATION;
+    private long mHoldDuration;
+
+    public void setGlyphSet(final GlyphSet glyphSet) {
+        mGlyphSet = (glyphSet == null) ? Digits.getGlyphSet() : glyphSet;
+    }
+
+    /**
+     * Sets the pool that frames are rendered on. By default, each call to render uses a new
+     * pool with one thread per processor.
+     */
+    public void setPool(final ForkJoinPool pool) {
+        mPool = pool;
+    }
+
+    public void setEasing(final Easing easing) {
+        mEasing = (easing == null) ? LINEAR : easing;
+    }
+
+    public void setScale(final float scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive");
+        }
+        mScale = scale;
+    }
+
+    public void setStrokeWidth(final float strokeWidth) {
+        mStrokeWidth = strokeWidth;
+    }
+
+    /**
+     * Sets the stroke color, as a non-premultiplied ARGB value.
+     */
+    public void setColor(final int color) {
+        mColor = color;
+    }
+
+    /**
+     * Sets the background color, as a non-premultiplied ARGB value. The default is transparent.
+     */
+    public void setBackgroundColor(final int backgroundColor) {
+        mBackgroundColor = backgroundColor;
+    }
+
+    /**
+     * Sets the padding around the digits, in pixels. By default, there is just enough to avoid
+     * clipping the stroke.
+     */
+    public void setPadding(final int padding) {
+        mPadding = padding;
+    }
+
+    public void setFrameRate(final int frameRate) {
+        if (frameRate <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive");
+        }
+        mFrameRate = frameRate;
+    }
+
+    /**
+     * Sets the length of each transition between values, in milliseconds.
+     */
+    public void setDuration(final long duration) {
+        mDuration = Math.max(0, duration);
+    }
+
+    /**
+     * Sets how long each value is shown for after its transition, in milliseconds.
+     */
+    public void setHoldDuration(final long holdDuration) {
+        mHoldDuration = Math.max(0, holdDuration);
+    }
+
+    /**
+     * Renders a single frame of the transition between {@code from} and {@code to}, where
+     * {@code factor} is the already eased progress of the transition.
+     */
+    public Frame renderFrame(final CharSequence from, final CharSequence to, final float factor) {
+        final Digit[][] values = { toDigits(from), toDigits(to) };
+        return createFrame(0, measureWidth(values), values[0], values[1], factor);
+    }
+
+    /**
+     * Renders the animation through {@code values}, where each value is shown as the glyphs
+     * for its characters.
+     */
+    public void render(final FrameEncoder<?> encoder, final CharSequence... values) throws IOException {
+        final Digit[][] digits = new Digit[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            digits[i] = toDigits(values[i]);
+        }
+        render(encoder, digits);
+    }
+
+    /**
+     * Renders the animation through {@code values}.
+     */
+    public void render(final FrameEncoder<?> encoder, final long... values) throws IOException {
+        final DigitBuffer buffer = new DigitBuffer();
+        final Digit[][] digits = new Digit[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            final int length = buffer.set(mGlyphSet, values[i], 0, false, 1);
+            digits[i] = new Digit[length];
+            for (int j = 0; j < length; j++) {
+                digits[i][j] = buffer.get(j);
+            }
+        }
+        render(encoder, digits);
+    }
+
+    /**
+     * The number of frames rendered for an animation through {@code valueCount} values.
+     */
+    public int getFrameCount(final int valueCount) {
+        if (valueCount <= 0) return 0;
+        return 1 + getHoldFrames() + (valueCount - 1) * (getTransitionFrames() + getHoldFrames());
+    }
+
+    private <T> void render(final FrameEncoder<T> encoder, final Digit[][] values) throws IOException {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No values to render");
+        }
+
+        final int frameCount = getFrameCount(values.length);
+        final float contentWidth = measureWidth(values);
+        final int padding = getPadding();
+        final int width = (int) Math.ceil(contentWidth) + 2 * padding;
+        final int height = (int) Math.ceil(mScale * Glyph.DEFAULT_HEIGHT) + 2 * padding;
+        encoder.start(width, height, frameCount, mFrameRate);
+
+        final ForkJoinPool pool = (mPool != null) ? mPool : new ForkJoinPool();
+        final ArrayDeque<ForkJoinTask<Encoded<T>>> pending = new ArrayDeque<>();
+        final int window = 2 * pool.getParallelism();
+
+        try {
+            for (int i = 0; i < frameCount; i++) {
+                pending.add(pool.submit(newTask(encoder, values, contentWidth, i)));
+                if (pending.size() >= window) {
+                    write(encoder, pending.poll());
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(encoder, pending.poll());
+            }
+        } finally {
+            for (final ForkJoinTask<?> task : pending) {
+                task.cancel(false);
+            }
+            if (pool != mPool) {
+                pool.shutdown();
+            }
+        }
+
+        encoder.finish();
+    }
+
+    private <T> Callable<Encoded<T>> newTask(
+            final FrameEncoder<T> encoder,
+            final Digit[][] values,
+            final float contentWidth,
+            final int index) {
+
+        return new Callable<Encoded<T>>() {
+            @Override
+            public Encoded<T> call() throws IOException {
+                final Frame frame = createFrame(index, contentWidth, values);
+                return new Encoded<>(frame, encoder.encode(frame));
+            }
+        };
+    }
+
+    private static <T> void write(final FrameEncoder<T> encoder, final ForkJoinTask<Encoded<T>> task) throws IOException {
+        final Encoded<T> encoded;
+        try {
+            encoded = task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+        encoder.write(encoded.mFrame, encoded.mValue);
+    }
+
+    private Frame createFrame(final int index, final float contentWidth, final Digit[][] values) {
+        // The first value is shown on its own, then each value transitions in and holds
+        final int hold = getHoldFrames();
+        final int transition = getTransitionFrames();
+
+        if (index <= hold || values.length == 1) {
+            return createFrame(index, contentWidth, values[0], values[0], 0f);
+        }
+
+        final int offset = index - hold - 1;
+        final int step = offset / (transition + hold);
+        final int progress = offset % (transition + hold);
+        final float input = (progress < transition) ? (progress + 1f) / transition : 1f;
+        return createFrame(index, contentWidth, values[step], values[step + 1], mEasing.getInterpolation(input));
+    }
+
+    private Frame createFrame(
+            final int index,
+            final float contentWidth,
+            final Digit[] from,
+            final Digit[] to,
+            final float factor) {
+
+        final int padding = getPadding();
+        final int width = (int) Math.ceil(contentWidth) + 2 * padding;
+        final int height = (int) Math.ceil(mScale * Glyph.DEFAULT_HEIGHT) + 2 * padding;
+
+        final int slots = Math.max(from.length, to.length);
+        final float[][] glyphs = new float[slots][];
+        final float[] offsets = new float[slots];
+
+        // Digits are right-aligned, starting from the least significant
+        float x = padding + contentWidth;
+        for (int i = 0; i < slots; i++) {
+            Glyph fromGlyph = mGlyphSet.glyphFor(getDigit(from, i));
+            Glyph toGlyph = mGlyphSet.glyphFor(getDigit(to, i));
+
+            // Digits outside the glyph set may have more segments than the rest
+            final int segments = Math.max(fromGlyph.getSegmentCount(), toGlyph.getSegmentCount());
+            fromGlyph = fromGlyph.resample(segments);
+            toGlyph = toGlyph.resample(segments);
+
+            final float[] delta = new float[Glyph.sizeOf(segments)];
+            glyphs[i] = new float[delta.length];
+            Glyph.delta(fromGlyph, toGlyph, delta);
+            Glyph.interpolate(fromGlyph.getData(), delta, factor, glyphs[i]);
+
+            x -= getSlotWidth(fromGlyph, toGlyph, factor);
+            offsets[i] = x;
+        }
+
+        return new Frame(index, width, height, mScale, glyphs, offsets, padding,
+                mStrokeWidth, mColor, mBackgroundColor);
+    }
+
+    private float measureWidth(final Digit[][] values) {
+        // Slot widths are interpolated linearly, so the widest frames are those showing a value
+        float width = 0;
+        for (int i = 0; i < values.length; i++) {
+            final Digit[] from = values[Math.max(0, i - 1)];
+            final Digit[] to = values[i];
+            final int slots = Math.max(from.length, to.length);
+
+            float fromWidth = 0;
+            float toWidth = 0;
+            for (int j = 0; j < slots; j++) {
+                final Glyph fromGlyph = mGlyphSet.glyphFor(getDigit(from, j));
+                final Glyph toGlyph = mGlyphSet.glyphFor(getDigit(to, j));
+                fromWidth += getSlotWidth(fromGlyph, toGlyph, 0f);
+                toWidth += getSlotWidth(fromGlyph, toGlyph, 1f);
+            }
+            width = Math.max(width, Math.max(fromWidth, toWidth));
+        }
+        return width;
+    }
+
+    private float getSlotWidth(final Glyph from, final Glyph to, final float factor) {
+        // Same as the width NumberView animates through
+        final float fromWidth = mScale * from.getWidth();
+        final float toWidth = mScale * to.getWidth();
+        return Math.max((1 - factor) * fromWidth + factor * toWidth, 1f);
+    }
+
+    private Digit getDigit(final Digit[] digits, final int index) {
+        return (index < digits.length) ? digits[index] : mGlyphSet.empty();
+    }
+
+    private Digit[] toDigits(final CharSequence value) {
+        final int length = value.length();
+        final Digit[] digits = new Digit[length];
+        for (int i = 0; i < length; i++) {
+            final char character = value.charAt(length - 1 - i);
+            final Digit digit = mGlyphSet.forChar(character);
+            if (digit == null) {
+                throw new IllegalArgumentException("No glyph for character '" + character + "'");
+            }
+            digits[i] = digit;
+        }
+        return digits;
+    }
+
+    private int getPadding() {
+        // Miter joins can reach up to half the stroke width times the miter limit past a corner
+        return (mPadding >= 0) ? mPadding : (int) Math.ceil(mStrokeWidth * StrokeRasterizer.MITER_LIMIT / 2f) + 1;
+    }
+
+    private int getTransitionFrames() {
+        return Math.max(1, Math.round(mDuration * mFrameRate / 1000f));
+    }
+
+    private int getHoldFrames() {
+        return Math.round(mHoldDuration * mFrameRate / 1000f);
+    }
+
+    private static final class Encoded<T> {
+        private final Frame mFrame;
+        private final T mValue;
+
+        Encoded(final Frame frame, final T value) {
+            mFrame = frame;
+            mValue = value;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.deange.numberview.render;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes frames as a looping animated GIF to a stream.
+ * <p>
+ * Each frame uses a 256 color palette of the stroke color blended over the background color,
+ * one entry per level of coverage, so antialiasing survives without dithering. A fully
+ * transparent background is written as GIF transparency, in which case partially covered
+ * pixels are blended over black. Frames are compressed on the renderer's worker threads.
+ */
+public final class GifEncoder implements FrameEncoder<byte[]> {
+
+    private static final int MIN_CODE_SIZE = 8;
+    private static final int CLEAR_CODE = 1 << MIN_CODE_SIZE;
+    private static final int END_CODE = CLEAR_CODE + 1;
+    private static final int MAX_CODE_SIZE = 12;
+    private static final int MAX_CODES = 1 << MAX_CODE_SIZE;
+
+    // Open-addressed table of (prefix, pixel) strings, sized as a prime larger than MAX_CODES
+    private static final int TABLE_SIZE = 5003;
+
+    private final OutputStream mOut;
+    private final boolean mLoop;
+
+    private int mFrameRate;
+    private boolean mHeaderWritten;
+
+    public GifEncoder(final OutputStream out) {
+        this(out, true);
+    }
+
+    public GifEncoder(final OutputStream out, final boolean loop) {
+        mOut = out;
+        mLoop = loop;
+    }
+
+    @Override
+    public void start(final int width, final int height, final int frameCount, final int frameRate) {
+        mFrameRate = frameRate;
+        mHeaderWritten = false;
+    }
+
+    @Override
+    public byte[] encode(final Frame frame) {
+        return compress(frame.rasterizeCoverage());
+    }
+
+    @Override
+    public void write(final Frame frame, final byte[] encoded) throws IOException {
+        if (!mHeaderWritten) {
+            writeHeader(frame);
+            mHeaderWritten = true;
+        }
+
+        final boolean transparent = Frame.alpha(frame.getBackgroundColor()) == 0;
+
+        // Graphic control extension, with delays rounded so that they add up to the frame rate
+        final int index = frame.getIndex();
+        final int delay = Math.round((index + 1) * 100f / mFrameRate) - Math.round(index * 100f / mFrameRate);
+        mOut.write(0x21);
+        mOut.write(0xF9);
+        mOut.write(4);
+        // Transparent frames are cleared before the next one is drawn, opaque ones simply cover it
+        mOut.write(transparent ? 0x09 : 0x04);
+        writeShort(delay);
+        mOut.write(0); // Transparent index
+        mOut.write(0);
+
+        // Image descriptor covering the whole canvas, using the global color table
+        mOut.write(0x2C);
+        writeShort(0);
+        writeShort(0);
+        writeShort(frame.getWidth());
+        writeShort(frame.getHeight());
+        mOut.write(0);
+
+        mOut.write(MIN_CODE_SIZE);
+        for (int offset = 0; offset < encoded.length; offset += 255) {
+            final int length = Math.min(255, encoded.length - offset);
+            mOut.write(length);
+            mOut.write(encoded, offset, length);
+        }
+        mOut.write(0);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        mOut.write(0x3B);
+        mOut.flush();
+    }
+
+    private void writeHeader(final Frame frame) throws IOException {
+        mOut.write("GIF89a".getBytes("US-ASCII"));
+        writeShort(frame.getWidth());
+        writeShort(frame.getHeight());
+        mOut.write(0xF7); // Global color table of 256 entries
+        mOut.write(0); // Background color index
+        mOut.write(0); // Pixel aspect ratio
+
+        final int background = Frame.alpha(frame.getBackgroundColor()) == 0
+                ? 0xFF000000
+                : frame.getBackgroundColor() | 0xFF000000;
+        final int[] palette = Frame.palette(frame.getColor(), background);
+        for (final int color : palette) {
+            mOut.write(Frame.red(color));
+            mOut.write(Frame.green(color));
+            mOut.write(Frame.blue(color));
+        }
+
+        if (mLoop) {
+            mOut.write(0x21);
+            mOut.write(0xFF);
+            mOut.write(11);
+            mOut.write("NETSCAPE2.0".getBytes("US-ASCII"));
+            mOut.write(3);
+            mOut.write(1);
+            writeShort(0); // Loop forever
+            mOut.write(0);
+        }
+    }
+
+    private void writeShort(final int value) throws IOException {
+        mOut.write(value & 0xFF);
+        mOut.write((value >> 8) & 0xFF);
+    }
+
+    /**
+     * LZW-compresses palette indices into GIF image data, without sub-block framing.
+     */
+    /* package */ static byte[] compress(final byte[] pixels) {
+        final BitWriter out = new BitWriter();
+        final int[] keys = new int[TABLE_SIZE];
+        final int[] codes = new int[TABLE_SIZE];
+        Arrays.fill(keys, -1);
+
+        int codeSize = MIN_CODE_SIZE + 1;
+        int nextCode = END_CODE + 1;
+        out.write(CLEAR_CODE, codeSize);
+
+        if (pixels.length == 0) {
+            out.write(END_CODE, codeSize);
+            return out.toByteArray();
+        }
+
+        int prefix = pixels[0] & 0xFF;
+        for (int i = 1; i < pixels.length; i++) {
+            final int pixel = pixels[i] & 0xFF;
+            final int key = (prefix << 8) | pixel;
+
+            int slot = key % TABLE_SIZE;
+            while (keys[slot] != -1 && keys[slot] != key) {
+                slot = (slot + 1) % TABLE_SIZE;
+            }
+            if (keys[slot] == key) {
+                prefix = codes[slot];
+                continue;
+            }
+
+            out.write(prefix, codeSize);
+            prefix = pixel;
+
+            // The decoder widens its codes one step after we add them, so match its timing
+            if (nextCode > (1 << codeSize) - 1 && codeSize < MAX_CODE_SIZE) {
+                codeSize++;
+            }
+
+            if (nextCode < MAX_CODES) {
+                keys[slot] = key;
+                codes[slot] = nextCode++;
+            } else {
+                // The table is full, so start over
+                out.write(CLEAR_CODE, codeSize);
+                Arrays.fill(keys, -1);
+                codeSize = MIN_CODE_SIZE + 1;
+                nextCode = END_CODE + 1;
+            }
+        }
+
+        out.write(prefix, codeSize);
+        if (nextCode > (1 << codeSize) - 1 && codeSize < MAX_CODE_SIZE) {
+            codeSize++;
+        }
+        out.write(END_CODE, codeSize);
+        return out.toByteArray();
+    }
+
+    private static final class BitWriter {
+        private final ByteArrayOutputStream mBytes = new ByteArrayOutputStream();
+        private int mBits;
+        private int mBitCount;
+
+        void write(final int code, final int size) {
+            mBits |= code << mBitCount;
+            mBitCount += size;
+            while (mBitCount >= 8) {
+                mBytes.write(mBits & 0xFF);
+                mBits >>>= 8;
+                mBitCount -= 8;
+            }
+        }
+
+        byte[] toByteArray() {
+            if (mBitCount > 0) {
+                mBytes.write(mBits & 0xFF);
+                mBits = 0;
+                mBitCount = 0;
+            }
+            return mBytes.toByteArray();
+        }
+    }
+}
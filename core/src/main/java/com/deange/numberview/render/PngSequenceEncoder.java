@@ -0,0 +1,116 @@
+package com.deange.numberview.render;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes each frame as a numbered RGBA PNG file in a directory, such as
+ * {@code frame_00000.png}. Frames are compressed on the renderer's worker threads.
+ */
+public final class PngSequenceEncoder implements FrameEncoder<byte[]> {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private final File mDirectory;
+    private final String mPrefix;
+
+    public PngSequenceEncoder(final File directory) {
+        this(directory, "frame_");
+    }
+
+    public PngSequenceEncoder(final File directory, final String prefix) {
+        mDirectory = directory;
+        mPrefix = prefix;
+    }
+
+    @Override
+    public void start(final int width, final int height, final int frameCount, final int frameRate) throws IOException {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Could not create " + mDirectory);
+        }
+    }
+
+    @Override
+    public byte[] encode(final Frame frame) throws IOException {
+        return encode(frame.getWidth(), frame.getHeight(), frame.rasterize());
+    }
+
+    @Override
+    public void write(final Frame frame, final byte[] encoded) throws IOException {
+        final String name = String.format(Locale.US, "%s%05d.png", mPrefix, frame.getIndex());
+        final OutputStream out = new FileOutputStream(new File(mDirectory, name));
+        try {
+            out.write(encoded);
+        } finally {
+            out.close();
+        }
+    }
+
+    @Override
+    public void finish() {
+    }
+
+    /**
+     * Encodes non-premultiplied ARGB {@code pixels} as a PNG image.
+     */
+    public static byte[] encode(final int width, final int height, final int[] pixels) throws IOException {
+        final ByteArrayOutputStream png = new ByteArrayOutputStream();
+        png.write(SIGNATURE);
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        final DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8); // Bit depth
+        headerData.writeByte(6); // Color type, RGBA
+        headerData.writeByte(0); // Compression method
+        headerData.writeByte(0); // Filter method
+        headerData.writeByte(0); // Interlace method
+        writeChunk(png, "IHDR", header.toByteArray());
+
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater();
+        final DeflaterOutputStream deflated = new DeflaterOutputStream(data, deflater);
+        final byte[] row = new byte[1 + width * 4];
+        for (int y = 0; y < height; y++) {
+            // Each row starts with its filter type, which is always none
+            row[0] = 0;
+            for (int x = 0; x < width; x++) {
+                final int pixel = pixels[y * width + x];
+                final int o = 1 + x * 4;
+                row[o] = (byte) Frame.red(pixel);
+                row[o + 1] = (byte) Frame.green(pixel);
+                row[o + 2] = (byte) Frame.blue(pixel);
+                row[o + 3] = (byte) Frame.alpha(pixel);
+            }
+            deflated.write(row);
+        }
+        deflated.close();
+        deflater.end();
+        writeChunk(png, "IDAT", data.toByteArray());
+
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static void writeChunk(final ByteArrayOutputStream png, final String type, final byte[] data) throws IOException {
+        final byte[] typeBytes = type.getBytes("US-ASCII");
+        final CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        final DataOutputStream out = new DataOutputStream(png);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,269 @@
+package com.deange.numberview.render;
+
+/**
+ * Strokes glyph outlines into a coverage mask the way {@code NumberView}'s default paint does:
+ * butt caps, miter joins with a miter limit of 4, and each glyph an open contour.
+ * <p>
+ * Cubics are flattened to within {@value #TOLERANCE} pixels, and the stroke is built from one
+ * quad per line plus a miter or bevel wedge per join. Their union is sampled on a
+ * {@value #SAMPLES}x{@value #SAMPLES} grid per pixel, so overlapping parts of the stroke never
+ * darken each other. Edge pixels are shaded in 17 steps rather than by analytic coverage.
+ */
+/* package */ final class StrokeRasterizer {
+
+    /* package */ static final float MITER_LIMIT = 4f;
+
+    private static final float TOLERANCE = 0.1f;
+    private static final int SAMPLES = 4;
+    private static final int MAX_LINES_PER_CUBIC = 256;
+
+    private final int mWidth;
+    private final int mHeight;
+    private final float mHalfWidth;
+    private final short[] mSamples;
+
+    private float[] mPoints = new float[64];
+    private int mPointCount;
+    private final float[] mPolygonX = new float[4];
+    private final float[] mPolygonY = new float[4];
+
+    /* package */ StrokeRasterizer(final int width, final int height, final float strokeWidth) {
+        mWidth = width;
+        mHeight = height;
+
+        // Like Paint, a stroke width of 0 draws a hairline
+        mHalfWidth = ((strokeWidth > 0) ? strokeWidth : 1f) / 2f;
+        mSamples = new short[width * height];
+    }
+
+    /**
+     * Strokes the packed point data in {@code glyph}, with each point mapped to
+     * {@code (scale * x + dx, scale * y + dy)}.
+     */
+    /* package */ void strokeGlyph(final float[] glyph, final float scale, final float dx, final float dy) {
+        mPointCount = 0;
+        addPoint(scale * glyph[0] + dx, scale * glyph[1] + dy);
+
+        for (int i = 2; i < glyph.length; i += 6) {
+            final float x0 = mPoints[2 * mPointCount - 2];
+            final float y0 = mPoints[2 * mPointCount - 1];
+            final float x1 = scale * glyph[i] + dx;
+            final float y1 = scale * glyph[i + 1] + dy;
+            final float x2 = scale * glyph[i + 2] + dx;
+            final float y2 = scale * glyph[i + 3] + dy;
+            final float x3 = scale * glyph[i + 4] + dx;
+            final float y3 = scale * glyph[i + 5] + dy;
+
+            final int lines = linesFor(x0, y0, x1, y1, x2, y2, x3, y3);
+            for (int j = 1; j <= lines; j++) {
+                final float t = (float) j / lines;
+                final float u = 1 - t;
+                final float a = u * u * u;
+                final float b = 3 * u * u * t;
+                final float c = 3 * u * t * t;
+                final float d = t * t * t;
+                addPoint(a * x0 + b * x1 + c * x2 + d * x3, a * y0 + b * y1 + c * y2 + d * y3);
+            }
+        }
+
+        strokeContour();
+    }
+
+    /**
+     * The coverage of every pixel, from 0 where no stroke is drawn to 255 where a pixel is
+     * fully covered.
+     */
+    /* package */ byte[] getCoverage() {
+        final int samples = SAMPLES * SAMPLES;
+        final byte[] coverage = new byte[mSamples.length];
+        for (int i = 0; i < coverage.length; i++) {
+            final int covered = Integer.bitCount(mSamples[i] & 0xFFFF);
+            coverage[i] = (byte) ((covered * 255 + samples / 2) / samples);
+        }
+        return coverage;
+    }
+
+    /**
+     * The number of lines that keep a flattened cubic within {@link #TOLERANCE} of the curve.
+     */
+    private static int linesFor(
+            final float x0, final float y0,
+            final float x1, final float y1,
+            final float x2, final float y2,
+            final float x3, final float y3) {
+
+        // Wang's formula, bounding the second derivative by the control polygon
+        final float ddx = Math.max(Math.abs(x0 - 2 * x1 + x2), Math.abs(x1 - 2 * x2 + x3));
+        final float ddy = Math.max(Math.abs(y0 - 2 * y1 + y2), Math.abs(y1 - 2 * y2 + y3));
+        final double dd = Math.sqrt(ddx * ddx + ddy * ddy);
+        final int lines = (int) Math.ceil(Math.sqrt(0.75 * dd / TOLERANCE));
+        return Math.max(1, Math.min(MAX_LINES_PER_CUBIC, lines));
+    }
+
+    private void addPoint(final float x, final float y) {
+        // Zero-length lines have no direction, so they are dropped like Skia drops them
+        if (mPointCount > 0 && mPoints[2 * mPointCount - 2] == x && mPoints[2 * mPointCount - 1] == y) {
+            return;
+        }
+
+        if (2 * mPointCount + 2 > mPoints.length) {
+            final float[] points = new float[mPoints.length * 2];
+            System.arraycopy(mPoints, 0, points, 0, 2 * mPointCount);
+            mPoints = points;
+        }
+        mPoints[2 * mPointCount] = x;
+        mPoints[2 * mPointCount + 1] = y;
+        mPointCount++;
+    }
+
+    private void strokeContour() {
+        // A contour that never moves, such as an empty digit, draws nothing with butt caps
+        final float hw = mHalfWidth;
+        for (int i = 0; i + 1 < mPointCount; i++) {
+            final float x0 = mPoints[2 * i];
+            final float y0 = mPoints[2 * i + 1];
+            final float x1 = mPoints[2 * i + 2];
+            final float y1 = mPoints[2 * i + 3];
+            final float length = (float) Math.hypot(x1 - x0, y1 - y0);
+            final float nx = -(y1 - y0) / length * hw;
+            final float ny = (x1 - x0) / length * hw;
+
+            fill(x0 + nx, y0 + ny, x1 + nx, y1 + ny, x1 - nx, y1 - ny, x0 - nx, y0 - ny);
+
+            if (i > 0) {
+                join(i);
+            }
+        }
+    }
+
+    /**
+     * Fills the wedge on the outside of the corner at point {@code index}.
+     */
+    private void join(final int index) {
+        final float px = mPoints[2 * index];
+        final float py = mPoints[2 * index + 1];
+
+        float d0x = px - mPoints[2 * index - 2];
+        float d0y = py - mPoints[2 * index - 1];
+        float d1x = mPoints[2 * index + 2] - px;
+        float d1y = mPoints[2 * index + 3] - py;
+        final float l0 = (float) Math.hypot(d0x, d0y);
+        final float l1 = (float) Math.hypot(d1x, d1y);
+        d0x /= l0;
+        d0y /= l0;
+        d1x /= l1;
+        d1y /= l1;
+
+        final float cross = d0x * d1y - d0y * d1x;
+        final float dot = d0x * d1x + d0y * d1y;
+        if (cross == 0 && dot > 0) return;
+
+        // The outer side is opposite to the direction of the turn
+        final float side = (cross > 0) ? -1f : 1f;
+        final float o0x = -d0y * side;
+        final float o0y = d0x * side;
+        final float o1x = -d1y * side;
+        final float o1y = d1x * side;
+
+        final float ax = px + o0x * mHalfWidth;
+        final float ay = py + o0y * mHalfWidth;
+        final float bx = px + o1x * mHalfWidth;
+        final float by = py + o1y * mHalfWidth;
+
+        // The miter is 1 / cos(theta / 2) half widths long, where theta is the turn angle
+        final float cosHalf = (float) Math.sqrt(Math.max(0f, (1 + dot) / 2));
+        if (cosHalf * MITER_LIMIT < 1f) {
+            fill(px, py, ax, ay, bx, by);
+            return;
+        }
+
+        final float mx = o0x + o1x;
+        final float my = o0y + o1y;
+        final float ml = (float) Math.hypot(mx, my);
+        final float reach = mHalfWidth / cosHalf;
+        fill(px, py, ax, ay, px + mx / ml * reach, py + my / ml * reach, bx, by);
+    }
+
+    private void fill(
+            final float x0, final float y0,
+            final float x1, final float y1,
+            final float x2, final float y2) {
+        mPolygonX[0] = x0;
+        mPolygonY[0] = y0;
+        mPolygonX[1] = x1;
+        mPolygonY[1] = y1;
+        mPolygonX[2] = x2;
+        mPolygonY[2] = y2;
+        fillConvex(3);
+    }
+
+    private void fill(
+            final float x0, final float y0,
+            final float x1, final float y1,
+            final float x2, final float y2,
+            final float x3, final float y3) {
+        mPolygonX[0] = x0;
+        mPolygonY[0] = y0;
+        mPolygonX[1] = x1;
+        mPolygonY[1] = y1;
+        mPolygonX[2] = x2;
+        mPolygonY[2] = y2;
+        mPolygonX[3] = x3;
+        mPolygonY[3] = y3;
+        fillConvex(4);
+    }
+
+    /**
+     * Marks every sample inside the convex polygon of the first {@code count} points.
+     */
+    private void fillConvex(final int count) {
+        final float[] xs = mPolygonX;
+        final float[] ys = mPolygonY;
+
+        float area = 0;
+        float minX = xs[0];
+        float maxX = xs[0];
+        float minY = ys[0];
+        float maxY = ys[0];
+        for (int i = 0; i < count; i++) {
+            final int j = (i + 1) % count;
+            area += xs[i] * ys[j] - xs[j] * ys[i];
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (area == 0) return;
+        final float orientation = Math.signum(area);
+
+        // Sample (sx, sy) sits at ((sx + 0.5) / SAMPLES, (sy + 0.5) / SAMPLES) in pixels
+        final int left = Math.max(0, (int) Math.ceil(minX * SAMPLES - 0.5f));
+        final int right = Math.min(mWidth * SAMPLES - 1, (int) Math.floor(maxX * SAMPLES - 0.5f));
+        final int top = Math.max(0, (int) Math.ceil(minY * SAMPLES - 0.5f));
+        final int bottom = Math.min(mHeight * SAMPLES - 1, (int) Math.floor(maxY * SAMPLES - 0.5f));
+
+        for (int sy = top; sy <= bottom; sy++) {
+            final float y = (sy + 0.5f) / SAMPLES;
+            for (int sx = left; sx <= right; sx++) {
+                final float x = (sx + 0.5f) / SAMPLES;
+                if (contains(count, orientation, x, y)) {
+                    final int pixel = (sy / SAMPLES) * mWidth + sx / SAMPLES;
+                    final int bit = (sy % SAMPLES) * SAMPLES + sx % SAMPLES;
+                    mSamples[pixel] |= (short) (1 << bit);
+                }
+            }
+        }
+    }
+
+    private boolean contains(final int count, final float orientation, final float x, final float y) {
+        for (int i = 0; i < count; i++) {
+            final int j = (i + 1) % count;
+            final float edge = (mPolygonX[j] - mPolygonX[i]) * (y - mPolygonY[i])
+                    - (mPolygonY[j] - mPolygonY[i]) * (x - mPolygonX[i]);
+            if (edge * orientation < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
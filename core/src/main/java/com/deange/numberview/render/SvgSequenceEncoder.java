@@ -0,0 +1,52 @@
+package com.deange.numberview.render;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Writes each frame as a numbered SVG file in a directory, such as {@code frame_00000.svg}.
+ */
+public final class SvgSequenceEncoder implements FrameEncoder<byte[]> {
+
+    private final File mDirectory;
+    private final String mPrefix;
+
+    public SvgSequenceEncoder(final File directory) {
+        this(directory, "frame_");
+    }
+
+    public SvgSequenceEncoder(final File directory, final String prefix) {
+        mDirectory = directory;
+        mPrefix = prefix;
+    }
+
+    @Override
+    public void start(final int width, final int height, final int frameCount, final int frameRate) throws IOException {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Could not create " + mDirectory);
+        }
+    }
+
+    @Override
+    public byte[] encode(final Frame frame) throws IOException {
+        return frame.toSvg().getBytes("UTF-8");
+    }
+
+    @Override
+    public void write(final Frame frame, final byte[] encoded) throws IOException {
+        final String name = String.format(Locale.US, "%s%05d.svg", mPrefix, frame.getIndex());
+        final OutputStream out = new FileOutputStream(new File(mDirectory, name));
+        try {
+            out.write(encoded);
+        } finally {
+            out.close();
+        }
+    }
+
+    @Override
+    public void finish() {
+    }
+}
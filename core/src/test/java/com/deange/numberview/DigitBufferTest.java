@@ -0,0 +1,206 @@
+package com.deange.numberview;
+
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.GlyphSet;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that {@link DigitBuffer#add} always leaves the buffer as {@link DigitBuffer#set} would
+ * have laid out the sum, and that it reports every digit it changed.
+ */
+public class DigitBufferTest {
+
+    // Longer than any long laid out with a sign, a decimal point and grouping separators
+    private static final int COMPARED_DIGITS = 48;
+
+    private static final int[] SCALES = {0, 1, 2, 5};
+    private static final int[] MIN_LENGTHS = {0, 1, 4, 9};
+
+    private final GlyphSet mGlyphs = Digits.getGlyphSet();
+
+    @Test
+    public void countingUpAndDownMatchesSet() {
+        for (final int scale : SCALES) {
+            for (final boolean grouping : new boolean[]{false, true}) {
+                for (final int minLength : MIN_LENGTHS) {
+                    final Counter counter = new Counter(-2500, scale, grouping, minLength);
+                    while (counter.mNumber < 2500) {
+                        counter.add(1);
+                    }
+                    while (counter.mNumber > -2500) {
+                        counter.add(-1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomDeltasMatchSet() {
+        final Random random = new Random(42);
+        for (int trial = 0; trial < 5000; trial++) {
+            final int scale = SCALES[random.nextInt(SCALES.length)];
+            final int minLength = MIN_LENGTHS[random.nextInt(MIN_LENGTHS.length)];
+            final Counter counter = new Counter(randomNumber(random), scale, random.nextBoolean(), minLength);
+
+            for (int step = 0; step < 40; step++) {
+                final long delta;
+                switch (random.nextInt(4)) {
+                    case 0:
+                        delta = 1;
+                        break;
+                    case 1:
+                        delta = -1;
+                        break;
+                    case 2:
+                        delta = random.nextInt(2001) - 1000;
+                        break;
+                    default:
+                        delta = randomNumber(random);
+                        break;
+                }
+                counter.add(delta);
+            }
+        }
+    }
+
+    @Test
+    public void signChangesMatchSet() {
+        for (final int scale : SCALES) {
+            for (final boolean grouping : new boolean[]{false, true}) {
+                final Counter counter = new Counter(5, scale, grouping, 3);
+                counter.add(-10);
+                counter.add(10);
+                counter.add(-5);
+                counter.add(-1);
+                counter.add(1);
+                counter.add(-123456789);
+                counter.add(123456789 * 2);
+                counter.add(-123456789);
+            }
+        }
+    }
+
+    @Test
+    public void longBoundsMatchSet() {
+        for (final int scale : SCALES) {
+            for (final boolean grouping : new boolean[]{false, true}) {
+                final Counter max = new Counter(Long.MAX_VALUE - 20, scale, grouping, 0);
+                for (int i = 0; i < 20; i++) {
+                    max.add(1);
+                }
+                max.add(-Long.MAX_VALUE);
+                max.add(Long.MAX_VALUE);
+                max.add(-1000);
+
+                final Counter min = new Counter(Long.MIN_VALUE + 20, scale, grouping, 0);
+                for (int i = 0; i < 20; i++) {
+                    min.add(-1);
+                }
+                min.add(Long.MAX_VALUE);
+                min.add(-Long.MAX_VALUE);
+                min.add(Long.MAX_VALUE);
+                min.add(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    @Test
+    public void overflowThrowsAndKeepsNumber() {
+        final Counter max = new Counter(Long.MAX_VALUE, 2, true, 0);
+        max.assertAddOverflows(1);
+        max.assertAddOverflows(Long.MAX_VALUE);
+        max.add(-1);
+
+        final Counter min = new Counter(Long.MIN_VALUE, 2, true, 0);
+        min.assertAddOverflows(-1);
+        min.assertAddOverflows(Long.MIN_VALUE);
+        min.add(1);
+    }
+
+    @Test
+    public void addingZeroChangesNothing() {
+        final Counter counter = new Counter(-1234567, 2, true, 12);
+        assertEquals(0, counter.add(0));
+    }
+
+    private static long randomNumber(final Random random) {
+        // Spread magnitudes evenly across orders of magnitude rather than values
+        final long magnitude = (long) Math.pow(10, random.nextInt(18));
+        return (long) (random.nextGaussian() * magnitude);
+    }
+
+    /**
+     * A buffer changed with {@link DigitBuffer#add}, along with the number it should show.
+     */
+    private final class Counter {
+        private final DigitBuffer mBuffer = new DigitBuffer();
+        private final int mScale;
+        private final boolean mGrouping;
+        private final int mMinLength;
+        private final char[] mBefore = new char[COMPARED_DIGITS];
+        private long mNumber;
+
+        Counter(final long number, final int scale, final boolean grouping, final int minLength) {
+            mNumber = number;
+            mScale = scale;
+            mGrouping = grouping;
+            mMinLength = minLength;
+            mBuffer.set(mGlyphs, number, scale, grouping, minLength);
+        }
+
+        int add(final long delta) {
+            for (int i = 0; i < COMPARED_DIGITS; i++) {
+                mBefore[i] = mBuffer.get(i).getChar();
+            }
+
+            final long number = mNumber;
+            final int changed = mBuffer.add(delta);
+            mNumber += delta;
+
+            final DigitBuffer expected = new DigitBuffer();
+            expected.set(mGlyphs, mNumber, mScale, mGrouping, mMinLength);
+
+            final String message = describe(number, delta);
+            assertEquals(message, toString(expected), toString(mBuffer));
+            assertEquals(message, expected.length(), mBuffer.length());
+
+            // Views only update the digits below the returned count
+            for (int i = changed; i < COMPARED_DIGITS; i++) {
+                if (mBuffer.get(i).getChar() != mBefore[i]) {
+                    fail(message + ": digit " + i + " changed, but only " + changed + " were reported");
+                }
+            }
+            return changed;
+        }
+
+        void assertAddOverflows(final long delta) {
+            final String before = toString(mBuffer);
+            try {
+                mBuffer.add(delta);
+                fail(describe(mNumber, delta) + ": expected overflow");
+            } catch (final ArithmeticException expected) {
+                assertEquals(describe(mNumber, delta), before, toString(mBuffer));
+            }
+        }
+
+        private String describe(final long number, final long delta) {
+            return number + " + " + delta + " (scale " + mScale + ", grouping "
+                    + mGrouping + ", min length " + mMinLength + ")";
+        }
+
+        private String toString(final DigitBuffer buffer) {
+            final StringBuilder sb = new StringBuilder();
+            for (int i = buffer.length() - 1; i >= 0; i--) {
+                sb.append(buffer.get(i).getChar());
+            }
+            return sb.toString();
+        }
+    }
+}
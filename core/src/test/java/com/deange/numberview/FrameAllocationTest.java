@@ -0,0 +1,119 @@
+package com.deange.numberview;
+
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.GlyphSet;
+import com.deange.numberview.digits.MorphTable;
+import com.sun.management.ThreadMXBean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the per-frame work of a counter for a long time and checks that none of it allocates.
+ */
+public class FrameAllocationTest {
+
+    private static final int FRAMES_PER_TRANSITION = 16;
+    private static final int WARM_UP_FRAMES = 100000;
+    private static final int FRAMES = 200000;
+    private static final float SCALE = 0.75f;
+
+    private ThreadMXBean mThreads;
+
+    @Before
+    public void setUp() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof ThreadMXBean);
+
+        mThreads = (ThreadMXBean) threads;
+        assumeTrue(mThreads.isThreadAllocatedMemorySupported());
+        mThreads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void countingAllocatesNothingPerFrame() {
+        final Counter counter = new Counter();
+
+        // Fills the morph table, and gives the JIT a chance to settle
+        counter.run(WARM_UP_FRAMES);
+
+        final long id = Thread.currentThread().getId();
+
+        // Reading the counter may allocate on some VMs, which is measured and subtracted
+        final long calibration = mThreads.getThreadAllocatedBytes(id);
+        final long overhead = mThreads.getThreadAllocatedBytes(id) - calibration;
+
+        final long before = mThreads.getThreadAllocatedBytes(id);
+        counter.run(FRAMES);
+        final long after = mThreads.getThreadAllocatedBytes(id);
+
+        assertEquals(0L, after - before - overhead);
+        assertFalse(Float.isNaN(counter.mChecksum));
+    }
+
+    /**
+     * Steps a counter the way a view does: one {@link DigitBuffer#add} and morph table lookup
+     * per transition, and one interpolation and flattening per digit per frame.
+     */
+    private static final class Counter {
+        private static final int SLOTS = 16;
+
+        private final GlyphSet mGlyphs = Digits.getGlyphSet();
+        private final MorphTable mMorphTable = new MorphTable();
+        private final DigitBuffer mDigits = new DigitBuffer();
+        private final Glyph[] mCurrent = new Glyph[SLOTS];
+        private final Glyph[] mNext = new Glyph[SLOTS];
+        private final float[][] mDeltas = new float[SLOTS][];
+        private final float[] mFrame;
+        private final float[] mLines;
+        private final int mLinesPerCubic = Glyph.linesPerCubic(SCALE);
+        private int mFrameCount;
+        private float mChecksum;
+
+        Counter() {
+            final Glyph empty = mGlyphs.glyphFor(mGlyphs.empty());
+            for (int i = 0; i < SLOTS; i++) {
+                mCurrent[i] = empty;
+                mNext[i] = empty;
+                mDeltas[i] = mMorphTable.get(empty, empty);
+            }
+
+            final int segments = mGlyphs.getSegmentCount();
+            mFrame = new float[Glyph.sizeOf(segments)];
+            mLines = new float[Glyph.flattenedSize(segments, mLinesPerCubic)];
+            mDigits.set(mGlyphs, 0, 0, false, 1);
+        }
+
+        void run(final int frames) {
+            for (int i = 0; i < frames; i++) {
+                if (mFrameCount % FRAMES_PER_TRANSITION == 0) {
+                    transition();
+                }
+
+                final float factor = (float) (mFrameCount % FRAMES_PER_TRANSITION) / FRAMES_PER_TRANSITION;
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    Glyph.interpolate(mCurrent[slot].getData(), mDeltas[slot], factor, mFrame);
+                    final int count = Glyph.flatten(mFrame, mLinesPerCubic, SCALE, slot * 100f, 0f, mLines);
+                    mChecksum += mLines[count - 1];
+                }
+                mFrameCount++;
+            }
+        }
+
+        private void transition() {
+            final int changed = mDigits.add(1);
+            for (int slot = 0; slot < changed; slot++) {
+                mCurrent[slot] = mNext[slot];
+                mNext[slot] = mGlyphs.glyphFor(mDigits.get(slot));
+                mDeltas[slot] = mMorphTable.get(mCurrent[slot], mNext[slot]);
+            }
+        }
+    }
+}
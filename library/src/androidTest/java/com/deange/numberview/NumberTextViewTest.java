@@ -0,0 +1,99 @@
+package com.deange.numberview;
+
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link NumberTextView} retargets a running transition from the frame it has
+ * drawn, rather than from where the transition began.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NumberTextViewTest {
+
+    // Long enough that the transition is still running whenever the main thread gets to it
+    private static final long DURATION = 10000L;
+    private static final long PLAY_TIME = DURATION / 2;
+    private static final long FRAMES_MILLIS = 100L;
+
+    private NumberTextView mView;
+    private boolean mRunning;
+    private boolean mMoved;
+    private long mRetargetDuration;
+    private boolean mEndedOnTarget;
+
+    @Test
+    public void retargetContinuesFromCurrentFrame() throws InterruptedException {
+        final Context context = InstrumentationRegistry.getTargetContext();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mView = new NumberTextView(context);
+                mView.setAnimationDuration(DURATION);
+                mView.setInterpolator(new LinearInterpolator());
+                mView.showNow(10);
+                mView.getAnimator().end();
+                layout(mView);
+
+                // Halfway from 10 to 17
+                mView.show(17);
+                mView.getAnimator().setCurrentPlayTime(PLAY_TIME);
+            }
+        });
+
+        // A seeked animator only starts counting from its seek time once it has run a frame
+        Thread.sleep(FRAMES_MILLIS);
+
+        // Failed assertions would crash the main thread, so results are checked afterwards
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final ValueAnimator animator = mView.getAnimator();
+                mRunning = animator.isRunning();
+
+                final Bitmap before = draw(mView);
+                mView.show(23);
+                mMoved = !before.sameAs(draw(mView));
+                mRetargetDuration = animator.getDuration();
+
+                animator.end();
+                final NumberTextView expected = new NumberTextView(context);
+                expected.showNow(23);
+                expected.getAnimator().end();
+                layout(mView);
+                layout(expected);
+                mEndedOnTarget = draw(mView).sameAs(draw(expected));
+            }
+        });
+
+        assertTrue("Transition ended before it could be retargeted", mRunning);
+        assertFalse("Retargeting moved the digits", mMoved);
+        assertTrue("Retargeting did not keep to the running transition's end",
+                mRetargetDuration <= DURATION - PLAY_TIME);
+        assertTrue("Retargeting did not end at the new number", mEndedOnTarget);
+    }
+
+    private static void layout(final View view) {
+        final int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(spec, spec);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static Bitmap draw(final View view) {
+        final Bitmap bitmap = Bitmap.createBitmap(view.getWidth(), view.getHeight(), Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+}
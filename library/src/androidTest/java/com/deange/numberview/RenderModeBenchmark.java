@@ -0,0 +1,127 @@
+package com.deange.numberview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.MorphTable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the per-frame cost of {@link NumberView#RENDER_MODE_PATH} and
+ * {@link NumberView#RENDER_MODE_LINES} on a software canvas, at several scales. Results are
+ * written to logcat under {@value #TAG}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RenderModeBenchmark {
+
+    private static final String TAG = "RenderModeBenchmark";
+
+    private static final float[] SCALES = {0.25f, 0.5f, 1f, 2f, 4f};
+    private static final int DIGITS = 10;
+    private static final int FRAMES_PER_TRANSITION = 30;
+    private static final int WARM_UP_FRAMES = 300;
+    private static final int FRAMES = 1500;
+    private static final int PADDING = 4;
+
+    private final Paint mPaint = new Paint();
+    private final Path mPath = new Path();
+    private final Matrix mMatrix = new Matrix();
+    private final MorphTable mMorphTable = new MorphTable();
+    private final List<Glyph> mGlyphs = Digits.glyphs();
+    private final float[] mFrame = new float[Glyph.SIZE];
+    private float[] mLines;
+
+    public RenderModeBenchmark() {
+        // The default paint of NumberView
+        mPaint.setAntiAlias(true);
+        mPaint.setColor(Color.BLACK);
+        mPaint.setStrokeWidth(2f);
+        mPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    @Test
+    public void comparePathAndLines() {
+        for (final float scale : SCALES) {
+            final long path = measure(scale, NumberView.RENDER_MODE_PATH);
+            final long lines = measure(scale, NumberView.RENDER_MODE_LINES);
+            Log.i(TAG, String.format(Locale.US,
+                    "scale=%.2f linesPerCubic=%d path=%dns lines=%dns speedup=%.2fx",
+                    scale, Glyph.linesPerCubic(scale), path, lines, (float) path / lines));
+        }
+    }
+
+    /**
+     * Returns the average time, in nanoseconds, to draw one frame of {@link #DIGITS} digits.
+     */
+    private long measure(final float scale, final int renderMode) {
+        final float slotWidth = (float) Math.ceil(scale * Glyph.DEFAULT_WIDTH) + 2 * PADDING;
+        final int width = (int) (DIGITS * slotWidth);
+        final int height = (int) Math.ceil(scale * Glyph.DEFAULT_HEIGHT) + 2 * PADDING;
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+
+        final int lines = Glyph.linesPerCubic(scale);
+        mLines = new float[Glyph.flattenedSize(Glyph.SEGMENTS, lines)];
+
+        for (int frame = 0; frame < WARM_UP_FRAMES; frame++) {
+            drawFrame(canvas, bitmap, frame, scale, slotWidth, lines, renderMode);
+        }
+
+        final long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            drawFrame(canvas, bitmap, frame, scale, slotWidth, lines, renderMode);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        bitmap.recycle();
+        return elapsed / FRAMES;
+    }
+
+    private void drawFrame(
+            final Canvas canvas,
+            final Bitmap bitmap,
+            final int frame,
+            final float scale,
+            final float slotWidth,
+            final int lines,
+            final int renderMode) {
+
+        bitmap.eraseColor(Color.TRANSPARENT);
+
+        final int transition = frame / FRAMES_PER_TRANSITION;
+        final float factor = (float) (frame % FRAMES_PER_TRANSITION) / FRAMES_PER_TRANSITION;
+
+        for (int i = 0; i < DIGITS; i++) {
+            final Glyph from = mGlyphs.get((transition + i) % mGlyphs.size());
+            final Glyph to = mGlyphs.get((transition + i + 1) % mGlyphs.size());
+            Glyph.interpolate(from.getData(), mMorphTable.get(from, to), factor, mFrame);
+
+            final float dx = i * slotWidth + PADDING;
+            final float dy = PADDING;
+            if (renderMode == NumberView.RENDER_MODE_LINES) {
+                final int count = Glyph.flatten(mFrame, lines, scale, dx, dy, mLines);
+                canvas.drawLines(mLines, 0, count, mPaint);
+
+            } else {
+                NumberView.buildPath(mPath, mFrame);
+                mMatrix.setScale(scale, scale);
+                mMatrix.postTranslate(dx, dy);
+                mPath.transform(mMatrix);
+                canvas.drawPath(mPath, mPaint);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.deange.numberview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the frames of a counting {@link NumberViewGroup} on a device and checks that none of
+ * them allocates. Each frame goes through the animator or {@link AnimationClock} callbacks of
+ * every digit, an {@link AnimationGovernor}, and {@code onDraw} on a software canvas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ViewFrameAllocationTest {
+
+    private static final int DIGITS = 8;
+    private static final int FRAMES_PER_TRANSITION = 16;
+    private static final int WARM_UP_TRANSITIONS = 200;
+    private static final int TRANSITIONS = 500;
+    private static final long DURATION = NumberView.DEFAULT_ANIMATION_DURATION;
+
+    private static final AnimationClock.FrameScheduler NO_FRAMES = new AnimationClock.FrameScheduler() {
+        @Override
+        public void schedule() {
+            // Frames are run by the test
+        }
+    };
+
+    private boolean mCountingSupported;
+    private long mAllocations;
+    private Object mSink;
+
+    @Test
+    public void animatorFramesAllocateNothing() {
+        assertEquals(0L, countAllocations(false));
+    }
+
+    @Test
+    public void clockFramesAllocateNothing() {
+        assertEquals(0L, countAllocations(true));
+    }
+
+    private long countAllocations(final boolean useClock) {
+        // Failed assertions would crash the main thread, so results are checked afterwards
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final Counter counter = new Counter(InstrumentationRegistry.getTargetContext(), useClock);
+
+                Debug.startAllocCounting();
+                try {
+                    final int calibration = Debug.getThreadAllocCount();
+                    mSink = new Object();
+                    mCountingSupported = Debug.getThreadAllocCount() > calibration;
+
+                    // Gives the JIT a chance to settle
+                    for (int i = 0; i < WARM_UP_TRANSITIONS; i++) {
+                        counter.transition();
+                    }
+
+                    mAllocations = 0;
+                    for (int i = 0; i < TRANSITIONS; i++) {
+                        mAllocations += counter.transition();
+                    }
+                } finally {
+                    Debug.stopAllocCounting();
+                }
+            }
+        });
+
+        assumeTrue(mCountingSupported);
+        return mAllocations;
+    }
+
+    /**
+     * Counts up in a group of digits, running the frames of every transition by hand.
+     */
+    private static final class Counter {
+        private final NumberViewGroup mGroup;
+        private final AnimationClock mClock;
+        private final Canvas mCanvas;
+        private long mFrameTime;
+
+        Counter(final Context context, final boolean useClock) {
+            mClock = useClock ? new AnimationClock(NO_FRAMES) : null;
+
+            mGroup = new NumberViewGroup(context);
+            mGroup.setAnimationGovernor(new AnimationGovernor());
+            mGroup.setAnimationClock(mClock);
+            mGroup.setMinimumNumbersShown(DIGITS);
+            mGroup.bind(0, false);
+
+            final int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+            mGroup.measure(spec, spec);
+            mGroup.layout(0, 0, mGroup.getMeasuredWidth(), mGroup.getMeasuredHeight());
+
+            final Bitmap bitmap = Bitmap.createBitmap(
+                    mGroup.getWidth(), mGroup.getHeight(), Bitmap.Config.ARGB_8888);
+            mCanvas = new Canvas(bitmap);
+        }
+
+        /**
+         * Advances the counter, and returns the number of objects allocated by the frames of
+         * its transition.
+         */
+        int transition() {
+            // Starting a transition may allocate, as long as its frames do not
+            mGroup.advance();
+
+            final int before = Debug.getThreadAllocCount();
+            for (int frame = 0; frame <= FRAMES_PER_TRANSITION; frame++) {
+                final long playTime = DURATION * frame / FRAMES_PER_TRANSITION;
+                if (mClock != null) {
+                    mClock.doFrame(mFrameTime + playTime);
+                } else {
+                    for (int i = 0; i < mGroup.getChildCount(); i++) {
+                        final NumberView digit = mGroup.getDigitAt(i);
+                        if (digit.isAnimating()) {
+                            digit.getAnimator().setCurrentPlayTime(playTime);
+                        }
+                    }
+                }
+                mGroup.draw(mCanvas);
+            }
+            final int allocations = Debug.getThreadAllocCount() - before;
+
+            // Seeking never ends an animator, and no real frames can run until the test is done
+            if (mClock == null) {
+                for (int i = 0; i < mGroup.getChildCount(); i++) {
+                    final NumberView digit = mGroup.getDigitAt(i);
+                    if (digit.isAnimating()) {
+                        digit.getAnimator().end();
+                    }
+                }
+            }
+            mFrameTime += DURATION + 1000L;
+
+            return allocations;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.deange.numberview;
+
+import android.animation.TimeInterpolator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single frame callback that drives the transitions of any number of digits.
+ * <p>
+ * Digits that start a transition between the same two frames share a start time, so they
+ * animate in lockstep. Use {@link NumberView#setAnimationClock} or
+ * {@link NumberViewGroup#setAnimationClock} to opt in; clocks are per thread, and must only
+ * be used from the thread that created them.
+ */
+public final class AnimationClock {
+
+    private static final long FALLBACK_FRAME_DELAY = 16L;
+
+    private static final ThreadLocal<AnimationClock> INSTANCE = new ThreadLocal<AnimationClock>() {
+        @Override
+        protected AnimationClock initialValue() {
+            return new AnimationClock();
+        }
+    };
+
+    private final List<Animation> mAnimations = new ArrayList<>();
+    private final FrameScheduler mScheduler;
+    private Animation[] mTicking = new Animation[16];
+    private boolean mFrameScheduled;
+    private long mFrameTime;
+
+    private AnimationClock() {
+        mScheduler = (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+                ? new ChoreographerScheduler()
+                : new HandlerScheduler();
+    }
+
+    /**
+     * Creates a clock that asks {@code scheduler} for frames, so that tests can run each frame
+     * themselves with {@link #doFrame}.
+     */
+    /* package */ AnimationClock(final FrameScheduler scheduler) {
+        mScheduler = scheduler;
+    }
+
+    public static AnimationClock getInstance() {
+        return INSTANCE.get();
+    }
+
+    public int getAnimationCount() {
+        return mAnimations.size();
+    }
+
+    /**
+     * The time of the last frame, in milliseconds of {@link SystemClock#uptimeMillis()}.
+     * Animations can read this from their callbacks to time several transitions at once.
+     */
+    /* package */ long getFrameTime() {
+        return mFrameTime;
+    }
+
+    /**
+     * The time since {@code animation} drew its first frame, in milliseconds, or 0 if it has
+     * not drawn one yet.
+     */
+    /* package */ long getPlayTime(final Animation animation) {
+        return (animation.mStartTime < 0) ? 0L : mFrameTime - animation.mStartTime;
+    }
+
+    /* package */ void start(final Animation animation) {
+        // Restarting begins again from the next frame, like ValueAnimator#start()
+        animation.mStartTime = -1;
+        if (!animation.mRunning) {
+            animation.mRunning = true;
+            mAnimations.add(animation);
+        }
+        scheduleFrame();
+    }
+
+    /* package */ void cancel(final Animation animation) {
+        if (animation.mRunning) {
+            animation.mRunning = false;
+            mAnimations.remove(animation);
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!mFrameScheduled && !mAnimations.isEmpty()) {
+            mFrameScheduled = true;
+            mScheduler.schedule();
+        }
+    }
+
+    /* package */ void doFrame(final long frameTimeMillis) {
+        mFrameScheduled = false;
+        mFrameTime = frameTimeMillis;
+
+        // Snapshot, since animations may be started or cancelled from within their callbacks
+        final int count = mAnimations.size();
+        if (mTicking.length < count) {
+            mTicking = new Animation[Math.max(count, mTicking.length * 2)];
+        }
+        final Animation[] ticking = mAnimations.toArray(mTicking);
+
+        for (int i = 0; i < count; i++) {
+            final Animation animation = ticking[i];
+            ticking[i] = null;
+            if (!animation.mRunning) continue;
+
+            if (animation.mStartTime < 0) {
+                animation.mStartTime = frameTimeMillis;
+            }
+
+            final long elapsed = frameTimeMillis - animation.mStartTime;
+            final float fraction = (animation.mDuration <= 0)
+                    ? 1f
+                    : Math.min(1f, (float) elapsed / animation.mDuration);
+
+            animation.onUpdate(animation.mInterpolator.getInterpolation(fraction));
+
+            if (fraction >= 1f && animation.mRunning) {
+                cancel(animation);
+                animation.onEnd();
+            }
+        }
+
+        scheduleFrame();
+    }
+
+    /**
+     * A transition driven by an {@link AnimationClock}.
+     */
+    /* package */ static abstract class Animation {
+        private long mStartTime = -1;
+        private boolean mRunning;
+        private long mDuration = NumberView.DEFAULT_ANIMATION_DURATION;
+        private TimeInterpolator mInterpolator;
+
+        protected Animation(final TimeInterpolator interpolator) {
+            mInterpolator = interpolator;
+        }
+
+        public void setDuration(final long duration) {
+            mDuration = duration;
+        }
+
+        public long getDuration() {
+            return mDuration;
+        }
+
+        public void setInterpolator(final TimeInterpolator interpolator) {
+            mInterpolator = interpolator;
+        }
+
+        public boolean isRunning() {
+            return mRunning;
+        }
+
+        protected abstract void onUpdate(final float factor);
+
+        protected abstract void onEnd();
+    }
+
+    /* package */ interface FrameScheduler {
+        void schedule();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class ChoreographerScheduler implements FrameScheduler, Choreographer.FrameCallback {
+        private final Choreographer mChoreographer = Choreographer.getInstance();
+
+        @Override
+        public void schedule() {
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            AnimationClock.this.doFrame(frameTimeNanos / 1000000L);
+        }
+    }
+
+    private class HandlerScheduler implements FrameScheduler, Runnable {
+        private final Handler mHandler = new Handler();
+
+        @Override
+        public void schedule() {
+            mHandler.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+
+        @Override
+        public void run() {
+            doFrame(SystemClock.uptimeMillis());
+        }
+    }
+}
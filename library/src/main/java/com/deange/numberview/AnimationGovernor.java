@@ -0,0 +1,247 @@
+package com.deange.numberview;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.provider.Settings;
+
+/**
+ * Adapts the quality of digit transitions to the device and its current load.
+ * <p>
+ * A governor caps the animation frame rate, honours the system animator duration scale and
+ * battery saver, and watches frame times while digits animate. When frames are dropped it
+ * degrades step by step: first to shorter transitions, then to a reduced frame rate, and
+ * finally to instant swaps. It recovers a step at a time once frames are on time again.
+ * <p>
+ * Share one governor between all views of a window with
+ * {@link NumberView#setAnimationGovernor} or {@link NumberViewGroup#setAnimationGovernor},
+ * or use {@link #getDefault()} for a process-wide one. Governors must only be used from the
+ * main thread.
+ */
+public final class AnimationGovernor {
+
+    public static final int LEVEL_FULL = 0;
+    public static final int LEVEL_SHORTENED = 1;
+    public static final int LEVEL_REDUCED_FRAME_RATE = 2;
+    public static final int LEVEL_INSTANT = 3;
+
+    public static final int DEFAULT_POWER_SAVE_FRAME_RATE = 30;
+
+    private static final int REDUCED_FRAME_RATE = 30;
+    private static final float FRAME_INTERVAL_MILLIS = 1000f / 60f;
+
+    // Frames are judged in windows; too many dropped in one degrades, enough clean ones recover
+    private static final int WINDOW_FRAMES = 30;
+    private static final int DEGRADE_DROPPED_FRAMES = WINDOW_FRAMES / 4;
+    private static final int RECOVER_CLEAN_WINDOWS = 4;
+
+    // Gaps longer than this are idle time between transitions rather than dropped frames
+    private static final long IDLE_GAP_MILLIS = 250L;
+
+    // Instant swaps draw no frames to measure, so recovery from them is time-based
+    private static final long INSTANT_RECOVERY_MILLIS = 5000L;
+
+    private static AnimationGovernor sDefault;
+
+    private int mMaxFrameRate;
+    private int mPowerSaveFrameRate = DEFAULT_POWER_SAVE_FRAME_RATE;
+    private boolean mAdaptive = true;
+
+    private float mDurationScale = 1f;
+    private boolean mPowerSaveMode;
+
+    private int mLevel = LEVEL_FULL;
+    private long mLevelChangedTime;
+    private long mLastFrameTime = -1;
+    private int mWindowFrames;
+    private int mWindowDropped;
+    private int mCleanWindows;
+
+    public static AnimationGovernor getDefault() {
+        if (sDefault == null) {
+            sDefault = new AnimationGovernor();
+        }
+        return sDefault;
+    }
+
+    /**
+     * Caps how often animating digits are redrawn. A rate of 0, the default, redraws on every
+     * frame.
+     */
+    public void setMaxFrameRate(final int framesPerSecond) {
+        mMaxFrameRate = Math.max(0, framesPerSecond);
+    }
+
+    public int getMaxFrameRate() {
+        return mMaxFrameRate;
+    }
+
+    /**
+     * Caps the frame rate while battery saver is on. A rate of 0 leaves it uncapped.
+     */
+    public void setPowerSaveFrameRate(final int framesPerSecond) {
+        mPowerSaveFrameRate = Math.max(0, framesPerSecond);
+    }
+
+    public int getPowerSaveFrameRate() {
+        return mPowerSaveFrameRate;
+    }
+
+    /**
+     * Sets whether quality degrades automatically when frames are dropped.
+     */
+    public void setAdaptive(final boolean adaptive) {
+        mAdaptive = adaptive;
+        if (!adaptive) {
+            reset();
+        }
+    }
+
+    public boolean isAdaptive() {
+        return mAdaptive;
+    }
+
+    /**
+     * The current degradation level, from {@link #LEVEL_FULL} to {@link #LEVEL_INSTANT}.
+     */
+    public int getLevel() {
+        return mLevel;
+    }
+
+    /**
+     * Returns to full quality and forgets all measured frame times.
+     */
+    public void reset() {
+        setLevel(LEVEL_FULL);
+        mLastFrameTime = -1;
+        mCleanWindows = 0;
+    }
+
+    /**
+     * Reads the system animator duration scale and battery saver state. Views call this when
+     * they are attached to a window.
+     */
+    public void update(final Context context) {
+        mDurationScale = readDurationScale(context);
+        mPowerSaveMode = readPowerSaveMode(context);
+    }
+
+    /* package */ boolean isInstant() {
+        if (mDurationScale == 0) {
+            return true;
+        }
+
+        if (mLevel == LEVEL_INSTANT
+                && SystemClock.uptimeMillis() - mLevelChangedTime >= INSTANT_RECOVERY_MILLIS) {
+            setLevel(LEVEL_INSTANT - 1);
+        }
+        return mLevel == LEVEL_INSTANT;
+    }
+
+    /**
+     * @param systemScaled whether the duration will already be scaled by the system, as is the
+     *                     case for {@code ValueAnimator}
+     */
+    /* package */ long getDuration(final long duration, final boolean systemScaled) {
+        float scaled = duration;
+        if (!systemScaled) {
+            scaled *= mDurationScale;
+        }
+        if (mLevel >= LEVEL_SHORTENED) {
+            scaled /= 2;
+        }
+        return (long) scaled;
+    }
+
+    /**
+     * Whether a view that last drew an animation frame at {@code lastFrameTime} should draw
+     * the frame at {@code frameTime}.
+     */
+    /* package */ boolean shouldDraw(final long lastFrameTime, final long frameTime) {
+        final int frameRate = getFrameRate();
+        if (frameRate <= 0 || lastFrameTime < 0) {
+            return true;
+        }
+
+        // Allow half a frame of slack so that a 30fps cap draws every other 60Hz frame
+        final float interval = 1000f / frameRate;
+        return frameTime - lastFrameTime >= interval - FRAME_INTERVAL_MILLIS / 2;
+    }
+
+    /**
+     * Records that an animation frame was produced at {@code frameTime}. Multiple views
+     * reporting the same frame are only counted once.
+     */
+    /* package */ void onFrame(final long frameTime) {
+        if (frameTime == mLastFrameTime) return;
+
+        final long interval = frameTime - mLastFrameTime;
+        final boolean first = mLastFrameTime < 0;
+        mLastFrameTime = frameTime;
+
+        if (!mAdaptive || first || interval > IDLE_GAP_MILLIS) return;
+
+        mWindowFrames++;
+        mWindowDropped += Math.max(0, Math.round(interval / FRAME_INTERVAL_MILLIS) - 1);
+
+        if (mWindowFrames < WINDOW_FRAMES) return;
+
+        if (mWindowDropped >= DEGRADE_DROPPED_FRAMES) {
+            mCleanWindows = 0;
+            setLevel(Math.min(LEVEL_INSTANT, mLevel + 1));
+        } else if (mWindowDropped == 0 && ++mCleanWindows >= RECOVER_CLEAN_WINDOWS) {
+            mCleanWindows = 0;
+            setLevel(Math.max(LEVEL_FULL, mLevel - 1));
+        }
+
+        mWindowFrames = 0;
+        mWindowDropped = 0;
+    }
+
+    private int getFrameRate() {
+        int frameRate = mMaxFrameRate;
+        if (mPowerSaveMode) {
+            frameRate = minRate(frameRate, mPowerSaveFrameRate);
+        }
+        if (mLevel >= LEVEL_REDUCED_FRAME_RATE) {
+            frameRate = minRate(frameRate, REDUCED_FRAME_RATE);
+        }
+        return frameRate;
+    }
+
+    private void setLevel(final int level) {
+        mLevel = level;
+        mLevelChangedTime = SystemClock.uptimeMillis();
+        mWindowFrames = 0;
+        mWindowDropped = 0;
+    }
+
+    private static int minRate(final int rate0, final int rate1) {
+        // A rate of 0 is uncapped
+        if (rate0 <= 0) return rate1;
+        if (rate1 <= 0) return rate0;
+        return Math.min(rate0, rate1);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static float readDurationScale(final Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(
+                    context.getContentResolver(), Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else {
+            return Settings.System.getFloat(
+                    context.getContentResolver(), Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static boolean readPowerSaveMode(final Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return false;
+        }
+        final PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+}
@@ -0,0 +1,70 @@
+package com.deange.numberview;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+
+/**
+ * A pool of detached digit views that {@link NumberViewGroup}s take from as their numbers grow
+ * and return to as they trim digits they no longer need.
+ * <p>
+ * Share one pool between the groups of a screen, such as the rows of a list, with
+ * {@link NumberViewGroup#setDigitViewPool}. Pooled views are reset to their default paint and
+ * timing before they are reused, and group settings are applied to them again. Pools hold
+ * views, so they should not outlive the screen they are used on, and must only be used from
+ * the main thread.
+ */
+public final class DigitViewPool {
+
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    private final ArrayList<NumberView> mViews = new ArrayList<>();
+    private final int mMaxSize;
+
+    public DigitViewPool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public DigitViewPool(final int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * Returns a pooled view created with {@code context}, or {@code null} if there is none.
+     */
+    public NumberView acquire(final Context context) {
+        for (int i = mViews.size() - 1; i >= 0; i--) {
+            final NumberView view = mViews.get(i);
+            if (view.getContext() == context) {
+                mViews.remove(i);
+                view.onRecycled();
+                return view;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a detached {@code view} to this pool, unless it is full.
+     */
+    public void release(final NumberView view) {
+        if (view.getParent() != null) {
+            throw new IllegalArgumentException("View must be detached before it is pooled");
+        }
+        if (mViews.size() < mMaxSize && !mViews.contains(view)) {
+            mViews.add(view);
+        }
+    }
+
+    public void clear() {
+        mViews.clear();
+    }
+
+    public int size() {
+        return mViews.size();
+    }
+
+    public int maxSize() {
+        return mMaxSize;
+    }
+}
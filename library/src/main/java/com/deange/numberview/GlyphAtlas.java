@@ -0,0 +1,195 @@
+package com.deange.numberview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.LruCache;
+
+import com.deange.numberview.digits.Glyph;
+
+/**
+ * A shared, bounded cache of rasterized glyphs for digits that are not animating.
+ * <p>
+ * Each glyph is stroked once per combination of paint and scale, then drawn as a bitmap for
+ * as long as it stays idle. This is used for software-rendered canvases, such as drawing into
+ * a bitmap, a widget or a software layer, where stroking a path on every redraw is expensive.
+ * Hardware-accelerated views already keep idle digits in their display list.
+ * <p>
+ * Bitmaps are evicted in least-recently-used order once the atlas exceeds its size in bytes.
+ * Atlases must only be used from the main thread.
+ */
+public final class GlyphAtlas {
+
+    public static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private static GlyphAtlas sDefault;
+
+    private final LruCache<Key, Bitmap> mBitmaps;
+    private final Key mLookup = new Key();
+    private final Paint mRasterPaint = new Paint();
+    private final Path mPath = new Path();
+    private final Matrix mMatrix = new Matrix();
+
+    public GlyphAtlas() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public GlyphAtlas(final int maxBytes) {
+        mBitmaps = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(final Key key, final Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    public static GlyphAtlas getDefault() {
+        if (sDefault == null) {
+            sDefault = new GlyphAtlas();
+        }
+        return sDefault;
+    }
+
+    /**
+     * Whether glyphs drawn with {@code paint} can be cached. Paints with shaders, path effects,
+     * color filters, mask filters, transfer modes or shadow layers are always stroked directly.
+     * <p>
+     * Shadow layers cannot be read back from a paint before API 29, so only paints that track
+     * their own, such as the paint of a {@link NumberView}, are ever cached.
+     */
+    public static boolean isCacheable(final Paint paint) {
+        return paint.getShader() == null
+                && paint.getPathEffect() == null
+                && paint.getColorFilter() == null
+                && paint.getMaskFilter() == null
+                && paint.getXfermode() == null
+                && paint instanceof ShadowLayerAware
+                && !((ShadowLayerAware) paint).hasShadowLayer();
+    }
+
+    /**
+     * The padding around each bitmap, so that the stroke is not clipped. Miter joins can reach
+     * up to half the stroke width times the miter limit past the outline.
+     */
+    /* package */ static int getPadding(final Paint paint) {
+        final float miter = (paint.getStrokeJoin() == Paint.Join.MITER) ? paint.getStrokeMiter() : 1f;
+        return (int) Math.ceil(paint.getStrokeWidth() * Math.max(2f, miter) / 2f) + 1;
+    }
+
+    /**
+     * A paint that knows whether it has a shadow layer.
+     */
+    /* package */ interface ShadowLayerAware {
+        boolean hasShadowLayer();
+    }
+
+    /**
+     * Returns {@code glyph} stroked with {@code paint} at {@code scale}. The glyph's origin is
+     * at {@code (getPadding(paint), getPadding(paint))} within the bitmap.
+     */
+    public Bitmap get(final Glyph glyph, final Paint paint, final float scale) {
+        mLookup.set(glyph, paint, scale);
+
+        Bitmap bitmap = mBitmaps.get(mLookup);
+        if (bitmap == null) {
+            bitmap = rasterize(glyph, paint, scale);
+            mBitmaps.put(new Key().set(glyph, paint, scale), bitmap);
+        }
+        return bitmap;
+    }
+
+    public void evictAll() {
+        mBitmaps.evictAll();
+    }
+
+    public int size() {
+        return mBitmaps.size();
+    }
+
+    public int maxSize() {
+        return mBitmaps.maxSize();
+    }
+
+    public int hitCount() {
+        return mBitmaps.hitCount();
+    }
+
+    public int missCount() {
+        return mBitmaps.missCount();
+    }
+
+    private Bitmap rasterize(final Glyph glyph, final Paint paint, final float scale) {
+        final int padding = getPadding(paint);
+        final int width = (int) Math.ceil(scale * NumberView.DEFAULT_WIDTH) + 2 * padding;
+        final int height = (int) Math.ceil(scale * NumberView.DEFAULT_HEIGHT) + 2 * padding;
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+
+        NumberView.buildPath(mPath, glyph.getData());
+        mMatrix.setScale(scale, scale);
+        mMatrix.postTranslate(padding, padding);
+        mPath.transform(mMatrix);
+
+        mRasterPaint.set(paint);
+        new Canvas(bitmap).drawPath(mPath, mRasterPaint);
+
+        return bitmap;
+    }
+
+    private static final class Key {
+        private Glyph mGlyph;
+        private float mScale;
+        private int mColor;
+        private float mStrokeWidth;
+        private float mStrokeMiter;
+        private int mFlags;
+        private Paint.Style mStyle;
+        private Paint.Cap mCap;
+        private Paint.Join mJoin;
+
+        Key set(final Glyph glyph, final Paint paint, final float scale) {
+            mGlyph = glyph;
+            mScale = scale;
+            mColor = paint.getColor();
+            mStrokeWidth = paint.getStrokeWidth();
+            mStrokeMiter = paint.getStrokeMiter();
+            mFlags = paint.getFlags();
+            mStyle = paint.getStyle();
+            mCap = paint.getStrokeCap();
+            mJoin = paint.getStrokeJoin();
+            return this;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key key = (Key) o;
+            return mGlyph == key.mGlyph
+                    && Float.compare(mScale, key.mScale) == 0
+                    && mColor == key.mColor
+                    && Float.compare(mStrokeWidth, key.mStrokeWidth) == 0
+                    && Float.compare(mStrokeMiter, key.mStrokeMiter) == 0
+                    && mFlags == key.mFlags
+                    && mStyle == key.mStyle
+                    && mCap == key.mCap
+                    && mJoin == key.mJoin;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(mGlyph);
+            result = 31 * result + Float.floatToIntBits(mScale);
+            result = 31 * result + mColor;
+            result = 31 * result + Float.floatToIntBits(mStrokeWidth);
+            result = 31 * result + Float.floatToIntBits(mStrokeMiter);
+            result = 31 * result + mFlags;
+            result = 31 * result + System.identityHashCode(mStyle);
+            result = 31 * result + System.identityHashCode(mCap);
+            result = 31 * result + System.identityHashCode(mJoin);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.deange.numberview;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import com.deange.numberview.digits.GlyphPack;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Opens {@link GlyphPack}s bundled as assets.
+ * <p>
+ * Uncompressed assets are memory-mapped straight out of the APK, so keep packs uncompressed
+ * with {@code aaptOptions { noCompress "nvgp" }}. Compressed assets still work, but are copied
+ * into memory first.
+ */
+public final class GlyphPacks {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private GlyphPacks() {
+        throw new AssertionError();
+    }
+
+    public static GlyphPack openAsset(final AssetManager assets, final String name) throws IOException {
+        final AssetFileDescriptor fd;
+        try {
+            fd = assets.openFd(name);
+        } catch (final IOException e) {
+            // Compressed assets have no file descriptor of their own
+            return GlyphPack.open(read(assets.open(name)));
+        }
+
+        try {
+            // The mapping remains valid after the descriptor is closed
+            final FileInputStream in = fd.createInputStream();
+            final FileChannel channel = in.getChannel();
+            return GlyphPack.open(channel.map(
+                    FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getDeclaredLength()));
+        } finally {
+            fd.close();
+        }
+    }
+
+    private static ByteBuffer read(final InputStream in) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            final byte[] chunk = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (buffer.remaining() < read) {
+                    final ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() * 2 + read);
+                    buffer.flip();
+                    grown.put(buffer);
+                    buffer = grown;
+                }
+                buffer.put(chunk, 0, read);
+            }
+            buffer.flip();
+            return buffer;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,788 @@
+package com.deange.numberview;
+
+import android.animation.TimeInterpolator;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.GlyphSet;
+import com.deange.numberview.digits.MorphTable;
+
+/**
+ * Renders a grid of counters within a single view, for dashboards that show far more numbers
+ * than would be practical as individual {@link NumberViewGroup}s.
+ * <p>
+ * Cells are indexed from left to right and top to bottom. Their values and transition times
+ * are kept in arrays, so setting a value costs time proportional to its digits and allocates
+ * nothing once the board has warmed up. All transitions are driven by a single
+ * {@link AnimationClock} animation, and changes made between two frames are redrawn together
+ * on the next one.
+ * <p>
+ * Idle cells are kept in one {@link Path} that is only rebuilt when a cell starts or finishes
+ * animating, so that hardware-accelerated canvases can reuse its stroke from frame to frame.
+ * Each frame only rebuilds the geometry of the cells that are still animating, and only
+ * invalidates their bounds.
+ * <p>
+ * Digits are drawn in fixed-width slots, so cells never move. Cells grow to fit the widest
+ * value shown.
+ */
+public class NumberBoard extends View {
+
+    public static final int DEFAULT_DIGITS_PER_CELL = 4;
+
+    private final BoardPaint mPaint = new BoardPaint();
+    private final Path mPath = new Path();
+    private final Path mIdlePath = new Path();
+    private final DigitBuffer mDigits = new DigitBuffer();
+    private final Rect mDirty = new Rect();
+    private float[] mFrame = new float[Glyph.SIZE];
+
+    private int mColumns;
+    private int mRows;
+    private int mDigitsPerCell = DEFAULT_DIGITS_PER_CELL;
+    private float mCellSpacing;
+    private float mScale = 1f;
+    private boolean mIdlePathValid;
+    private int mIdlePathLeft;
+    private int mIdlePathTop;
+
+    // Per cell
+    private long[] mValues = new long[0];
+    private boolean[] mHasValue = new boolean[0];
+    private long[] mStartTimes = new long[0];
+    private float[] mFactors = new float[0];
+    private boolean[] mActive = new boolean[0];
+    private int[] mActiveCells = new int[0];
+    private int mActiveCount;
+
+    // Per digit slot, indexed by cell * mDigitsPerCell, from least to most significant
+    private Glyph[] mTo = new Glyph[0];
+    private Glyph[] mFromGlyphs = new Glyph[0];
+    private float[][] mFrom = new float[0][];
+    private float[] mFromWidths = new float[0];
+    private float[][] mDeltas = new float[0][];
+    private float[][] mSnapshots = new float[0][];
+    private float[][] mDeltaBuffers = new float[0][];
+    private Glyph[] mNext = new Glyph[DEFAULT_DIGITS_PER_CELL];
+
+    private long mDuration = NumberView.DEFAULT_ANIMATION_DURATION;
+    private TimeInterpolator mInterpolator = new AccelerateDecelerateInterpolator();
+    private AnimationClock mClock;
+    private final BoardAnimation mAnimation = new BoardAnimation();
+    private MorphTable mMorphTable;
+    private GlyphSet mGlyphSet;
+
+    public NumberBoard(final Context context) {
+        super(context);
+        init();
+    }
+
+    public NumberBoard(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public NumberBoard(final Context context, final AttributeSet attrs, final int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public NumberBoard(
+            final Context context,
+            final AttributeSet attrs,
+            final int defStyleAttr,
+            final int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        init();
+    }
+
+    private void init() {
+        setWillNotDraw(false);
+
+        // A new paint with the style as stroke
+        mPaint.setAntiAlias(true);
+        mPaint.setColor(Color.BLACK);
+        mPaint.setStrokeWidth(2f);
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setTextSize(TextSizes.fit(mPaint, getResources().getDisplayMetrics(), NumberView.DEFAULT_WIDTH));
+    }
+
+    /**
+     * Lays this board out as {@code columns} by {@code rows} cells, all of which start out
+     * blank.
+     */
+    public void setGridSize(final int columns, final int rows) {
+        if (columns < 0 || rows < 0) {
+            throw new IllegalArgumentException("Grid size cannot be negative");
+        }
+
+        settleAll();
+        mColumns = columns;
+        mRows = rows;
+
+        final int cells = columns * rows;
+        mValues = new long[cells];
+        mHasValue = new boolean[cells];
+        mStartTimes = new long[cells];
+        mFactors = new float[cells];
+        mActive = new boolean[cells];
+        mActiveCells = new int[cells];
+        mActiveCount = 0;
+        allocateSlots(cells * mDigitsPerCell);
+        mIdlePathValid = false;
+
+        requestLayout();
+        invalidate();
+    }
+
+    public int getColumnCount() {
+        return mColumns;
+    }
+
+    public int getRowCount() {
+        return mRows;
+    }
+
+    public int getCellCount() {
+        return mValues.length;
+    }
+
+    /**
+     * Reserves room for {@code digits} digits in every cell, including any minus sign. Cells
+     * also grow on their own to fit the widest value shown.
+     */
+    public void setDigitsPerCell(final int digits) {
+        if (digits < 1) {
+            throw new IllegalArgumentException("Cells must fit at least one digit");
+        }
+        if (digits != mDigitsPerCell) {
+            resizeCells(digits);
+        }
+    }
+
+    public int getDigitsPerCell() {
+        return mDigitsPerCell;
+    }
+
+    /**
+     * Sets the space between cells, in pixels.
+     */
+    public void setCellSpacing(final float spacing) {
+        mCellSpacing = Math.max(0, spacing);
+        mIdlePathValid = false;
+        requestLayout();
+        invalidate();
+    }
+
+    public float getCellSpacing() {
+        return mCellSpacing;
+    }
+
+    public Paint getPaint() {
+        return mPaint;
+    }
+
+    public void setTextSize(final int sizeUnit, final float textSize) {
+        final float pixelSize = TypedValue.applyDimension(sizeUnit, textSize, getResources().getDisplayMetrics());
+        setTextSize(pixelSize);
+    }
+
+    public void setTextSize(final float textSize) {
+        mPaint.setTextSize(textSize);
+    }
+
+    public float getTextSize() {
+        return mPaint.getTextSize();
+    }
+
+    public void setAnimationDuration(final long duration) {
+        mDuration = duration;
+    }
+
+    public long getAnimationDuration() {
+        return mDuration;
+    }
+
+    public void setInterpolator(final TimeInterpolator interpolator) {
+        mInterpolator = (interpolator == null) ? new LinearInterpolator() : interpolator;
+    }
+
+    /**
+     * Drives transitions from {@code clock} rather than the clock of the current thread.
+     */
+    public void setAnimationClock(final AnimationClock clock) {
+        if (mClock == clock) return;
+
+        // The animation may be running on the default clock, which is what getClock() returns
+        getClock().cancel(mAnimation);
+        mClock = clock;
+        if (mActiveCount > 0) {
+            getClock().start(mAnimation);
+        }
+    }
+
+    public AnimationClock getAnimationClock() {
+        return getClock();
+    }
+
+    /**
+     * Shares transition geometry with other views through {@code morphTable}.
+     */
+    public void setMorphTable(final MorphTable morphTable) {
+        mMorphTable = morphTable;
+    }
+
+    public MorphTable getMorphTable() {
+        if (mMorphTable == null) {
+            mMorphTable = new MorphTable();
+        }
+        return mMorphTable;
+    }
+
+    /**
+     * Draws every cell from {@code glyphSet} instead of the globally registered
+     * {@link Digits}, without animating.
+     */
+    public void setGlyphSet(final GlyphSet glyphSet) {
+        mGlyphSet = glyphSet;
+
+        settleAll();
+        for (int cell = 0; cell < mValues.length; cell++) {
+            bindCell(cell, false);
+        }
+        invalidate();
+    }
+
+    public GlyphSet getGlyphSet() {
+        return (mGlyphSet != null) ? mGlyphSet : Digits.getGlyphSet();
+    }
+
+    public long getValue(final int cell) {
+        return mValues[cell];
+    }
+
+    public boolean hasValue(final int cell) {
+        return mHasValue[cell];
+    }
+
+    /**
+     * Animates {@code cell} to {@code value}. Cells changed between two frames start animating
+     * together on the next one.
+     */
+    public void setValue(final int cell, final long value) {
+        setValue(cell, value, true);
+    }
+
+    public void setValue(final int cell, final long value, final boolean animate) {
+        mValues[cell] = value;
+        mHasValue[cell] = true;
+        bindCell(cell, animate);
+    }
+
+    /**
+     * Shows {@code values} in the first cells of this board with a single invalidation.
+     */
+    public void setValues(final long[] values, final boolean animate) {
+        final int count = Math.min(values.length, mValues.length);
+        for (int cell = 0; cell < count; cell++) {
+            mValues[cell] = values[cell];
+            mHasValue[cell] = true;
+            bindCell(cell, animate, false);
+        }
+        if (!animate) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Blanks {@code cell}.
+     */
+    public void clearValue(final int cell, final boolean animate) {
+        mValues[cell] = 0;
+        mHasValue[cell] = false;
+        bindCell(cell, animate);
+    }
+
+    public boolean isAnimating() {
+        return mActiveCount > 0;
+    }
+
+    private AnimationClock getClock() {
+        return (mClock != null) ? mClock : AnimationClock.getInstance();
+    }
+
+    private void bindCell(final int cell, final boolean animate) {
+        bindCell(cell, animate, true);
+    }
+
+    private void bindCell(final int cell, final boolean animate, final boolean invalidate) {
+        final GlyphSet glyphs = getGlyphSet();
+        final int length = mHasValue[cell] ? mDigits.set(glyphs, mValues[cell], 0, false, 1) : 0;
+        if (length > mDigitsPerCell) {
+            // Resizing rebinds every cell, this one included, through the shared digit buffer
+            resizeCells(length);
+            return;
+        }
+
+        final int first = cell * mDigitsPerCell;
+        boolean changed = false;
+        for (int i = 0; i < mDigitsPerCell; i++) {
+            mNext[i] = glyphs.glyphFor((i < length) ? mDigits.get(i) : glyphs.empty());
+            changed |= (mNext[i] != mTo[first + i]);
+        }
+
+        if (!changed) return;
+
+        if (!animate || mDuration <= 0) {
+            deactivate(cell);
+            System.arraycopy(mNext, 0, mTo, first, mDigitsPerCell);
+            mIdlePathValid = false;
+            if (invalidate) {
+                invalidateCell(cell);
+            }
+            return;
+        }
+
+        // Transitions continue from wherever the cell is drawn now
+        for (int i = 0; i < mDigitsPerCell; i++) {
+            final int slot = first + i;
+            if (mActive[cell]) {
+                snapshot(slot, mFactors[cell]);
+            } else {
+                mFromGlyphs[slot] = mTo[slot];
+                mFrom[slot] = mTo[slot].getData();
+                mFromWidths[slot] = mTo[slot].getWidth();
+            }
+            mTo[slot] = mNext[i];
+            updateDelta(slot);
+        }
+
+        activate(cell);
+    }
+
+    private void snapshot(final int slot, final float factor) {
+        final float[] from = mFrom[slot];
+        if (mSnapshots[slot] == null || mSnapshots[slot].length != from.length) {
+            mSnapshots[slot] = new float[from.length];
+        }
+
+        // Safe to do in place when the slot already started from its snapshot
+        Glyph.interpolate(from, mDeltas[slot], factor, mSnapshots[slot]);
+        mFromWidths[slot] = NumberView.lerp(mFromWidths[slot], mTo[slot].getWidth(), factor);
+        mFromGlyphs[slot] = null;
+        mFrom[slot] = mSnapshots[slot];
+    }
+
+    private void updateDelta(final int slot) {
+        if (mFromGlyphs[slot] != null) {
+            mDeltas[slot] = getMorphTable().get(mFromGlyphs[slot], mTo[slot]);
+            return;
+        }
+
+        final float[] to = mTo[slot].getData();
+        if (mDeltaBuffers[slot] == null || mDeltaBuffers[slot].length != to.length) {
+            mDeltaBuffers[slot] = new float[to.length];
+        }
+        Glyph.delta(mFrom[slot], to, mDeltaBuffers[slot]);
+        mDeltas[slot] = mDeltaBuffers[slot];
+    }
+
+    private void activate(final int cell) {
+        // Restarted cells are timed from the next frame, along with every other change
+        mStartTimes[cell] = -1;
+        mFactors[cell] = 0f;
+        if (!mActive[cell]) {
+            // The cell is drawn from its transition until it settles
+            mActive[cell] = true;
+            mActiveCells[mActiveCount++] = cell;
+            mIdlePathValid = false;
+        }
+        if (!mAnimation.isRunning()) {
+            getClock().start(mAnimation);
+        }
+    }
+
+    private void deactivate(final int cell) {
+        if (!mActive[cell]) return;
+
+        mActive[cell] = false;
+        mIdlePathValid = false;
+        for (int i = 0; i < mActiveCount; i++) {
+            if (mActiveCells[i] == cell) {
+                mActiveCells[i] = mActiveCells[--mActiveCount];
+                break;
+            }
+        }
+    }
+
+    private void settleAll() {
+        for (int i = 0; i < mActiveCount; i++) {
+            mActive[mActiveCells[i]] = false;
+        }
+        mActiveCount = 0;
+        mIdlePathValid = false;
+        getClock().cancel(mAnimation);
+    }
+
+    private void onFrame(final long frameTime) {
+        mDirty.setEmpty();
+
+        // Iterate backwards, since finished cells are swapped out of the active list
+        for (int i = mActiveCount - 1; i >= 0; i--) {
+            final int cell = mActiveCells[i];
+            if (mStartTimes[cell] < 0) {
+                mStartTimes[cell] = frameTime;
+            }
+
+            final long elapsed = frameTime - mStartTimes[cell];
+            final float fraction = (mDuration <= 0)
+                    ? 1f
+                    : Math.min(1f, (float) elapsed / mDuration);
+            mFactors[cell] = mInterpolator.getInterpolation(fraction);
+            unionCell(cell, mDirty);
+
+            if (fraction >= 1f) {
+                mActive[cell] = false;
+                mActiveCells[i] = mActiveCells[--mActiveCount];
+                mIdlePathValid = false;
+            }
+        }
+
+        if (!mDirty.isEmpty()) {
+            invalidate(mDirty.left, mDirty.top, mDirty.right, mDirty.bottom);
+        }
+        if (mActiveCount == 0) {
+            getClock().cancel(mAnimation);
+        }
+    }
+
+    private void allocateSlots(final int slots) {
+        final Glyph empty = getGlyphSet().glyphFor(getGlyphSet().empty());
+        mTo = new Glyph[slots];
+        mFromGlyphs = new Glyph[slots];
+        mFrom = new float[slots][];
+        mFromWidths = new float[slots];
+        mDeltas = new float[slots][];
+        mSnapshots = new float[slots][];
+        mDeltaBuffers = new float[slots][];
+        for (int slot = 0; slot < slots; slot++) {
+            mTo[slot] = empty;
+        }
+    }
+
+    private void resizeCells(final int digits) {
+        // Finish every transition rather than carry them over to the new layout
+        settleAll();
+        mDigitsPerCell = digits;
+        allocateSlots(mValues.length * digits);
+        if (mNext.length < digits) {
+            mNext = new Glyph[digits];
+        }
+
+        for (int cell = 0; cell < mValues.length; cell++) {
+            bindCell(cell, false, false);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    private float getSlotWidth() {
+        return mScale * NumberView.DEFAULT_WIDTH;
+    }
+
+    private float getCellWidth() {
+        return mDigitsPerCell * getSlotWidth();
+    }
+
+    private float getCellHeight() {
+        return mScale * NumberView.DEFAULT_HEIGHT;
+    }
+
+    private float getCellLeft(final int cell) {
+        return getPaddingLeft() + (cell % Math.max(1, mColumns)) * (getCellWidth() + mCellSpacing);
+    }
+
+    private float getCellTop(final int cell) {
+        return getPaddingTop() + (cell / Math.max(1, mColumns)) * (getCellHeight() + mCellSpacing);
+    }
+
+    private void unionCell(final int cell, final Rect rect) {
+        // Strokes are centered on the glyph outline, and miter joins reach further past corners
+        final float inset = GlyphAtlas.getPadding(mPaint);
+        final float left = getCellLeft(cell);
+        final float top = getCellTop(cell);
+        final int l = (int) Math.floor(left - inset);
+        final int t = (int) Math.floor(top - inset);
+        final int r = (int) Math.ceil(left + getCellWidth() + inset);
+        final int b = (int) Math.ceil(top + getCellHeight() + inset);
+        if (rect.isEmpty()) {
+            rect.set(l, t, r, b);
+        } else {
+            rect.union(l, t, r, b);
+        }
+    }
+
+    private void invalidateCell(final int cell) {
+        mDirty.setEmpty();
+        unionCell(cell, mDirty);
+        invalidate(mDirty.left, mDirty.top, mDirty.right, mDirty.bottom);
+    }
+
+    private void setScale(final float scale) {
+        if (scale == 0) {
+            throw new IllegalArgumentException("Scale cannot be 0");
+        }
+        if (mScale == Math.abs(scale)) return;
+
+        mScale = Math.abs(scale);
+        mIdlePathValid = false;
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        final float cellsWidth = mColumns * getCellWidth() + Math.max(0, mColumns - 1) * mCellSpacing;
+        final float cellsHeight = mRows * getCellHeight() + Math.max(0, mRows - 1) * mCellSpacing;
+        final int width = (int) Math.ceil(cellsWidth) + getPaddingLeft() + getPaddingRight();
+        final int height = (int) Math.ceil(cellsHeight) + getPaddingTop() + getPaddingBottom();
+
+        setMeasuredDimension(
+                resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        // Skip straight to the end of every transition
+        settleAll();
+    }
+
+    @Override
+    public void onDraw(final Canvas canvas) {
+        super.onDraw(canvas);
+
+        Tracing.beginSection("NumberBoard#onDraw");
+        try {
+            drawCells(canvas);
+        } finally {
+            Tracing.endSection();
+        }
+    }
+
+    private void drawCells(final Canvas canvas) {
+        if (!mIdlePathValid || mIdlePathLeft != getPaddingLeft() || mIdlePathTop != getPaddingTop()) {
+            buildIdlePath();
+        }
+        canvas.drawPath(mIdlePath, mPaint);
+
+        // Animating cells are rebuilt on every frame, skipping any outside the dirty region
+        final float inset = GlyphAtlas.getPadding(mPaint);
+        mPath.reset();
+        for (int i = 0; i < mActiveCount; i++) {
+            final int cell = mActiveCells[i];
+            final float left = getCellLeft(cell);
+            final float top = getCellTop(cell);
+            if (canvas.quickReject(left - inset, top - inset,
+                    left + getCellWidth() + inset, top + getCellHeight() + inset, Canvas.EdgeType.AA)) {
+                continue;
+            }
+            addCell(mPath, cell, null);
+        }
+        if (!mPath.isEmpty()) {
+            canvas.drawPath(mPath, mPaint);
+        }
+    }
+
+    private void buildIdlePath() {
+        final GlyphSet glyphs = getGlyphSet();
+        final Glyph empty = glyphs.glyphFor(glyphs.empty());
+
+        mIdlePath.reset();
+        for (int cell = 0; cell < mValues.length; cell++) {
+            if (!mActive[cell]) {
+                addCell(mIdlePath, cell, empty);
+            }
+        }
+
+        mIdlePathValid = true;
+        mIdlePathLeft = getPaddingLeft();
+        mIdlePathTop = getPaddingTop();
+    }
+
+    /**
+     * Adds the glyphs of {@code cell} to {@code path}, as of its current transition if it is
+     * animating. Idle slots showing {@code skipped} are left out.
+     */
+    private void addCell(final Path path, final int cell, final Glyph skipped) {
+        final float scale = mScale;
+        final float slotWidth = getSlotWidth();
+        final float left = getCellLeft(cell);
+        final float top = getCellTop(cell);
+        final boolean active = mActive[cell];
+        final float factor = mFactors[cell];
+        final int first = cell * mDigitsPerCell;
+
+        // Slots are laid out from most to least significant
+        for (int i = 0; i < mDigitsPerCell; i++) {
+            final int slot = first + i;
+            final float[] frame;
+            final float width;
+            if (active) {
+                if (mFrame.length != mFrom[slot].length) {
+                    mFrame = new float[mFrom[slot].length];
+                }
+                frame = mFrame;
+                Glyph.interpolate(mFrom[slot], mDeltas[slot], factor, frame);
+                width = NumberView.lerp(mFromWidths[slot], mTo[slot].getWidth(), factor);
+            } else if (mTo[slot] == skipped) {
+                continue;
+            } else {
+                frame = mTo[slot].getData();
+                width = mTo[slot].getWidth();
+            }
+
+            final float dx = left + (mDigitsPerCell - 1 - i) * slotWidth + (slotWidth - scale * width) / 2f;
+            addGlyph(path, frame, scale, dx, top);
+        }
+    }
+
+    private static void addGlyph(
+            final Path path,
+            final float[] frame,
+            final float scale,
+            final float dx,
+            final float dy) {
+        path.moveTo(scale * frame[0] + dx, scale * frame[1] + dy);
+        for (int i = 2; i < frame.length; i += 6) {
+            path.cubicTo(
+                    scale * frame[i] + dx, scale * frame[i + 1] + dy,
+                    scale * frame[i + 2] + dx, scale * frame[i + 3] + dy,
+                    scale * frame[i + 4] + dx, scale * frame[i + 5] + dy);
+        }
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        final SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.columns = mColumns;
+        ss.rows = mRows;
+        ss.values = mValues.clone();
+        ss.hasValue = mHasValue.clone();
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        final SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+
+        // Restoring skips straight to the end of any transition that was running
+        setGridSize(ss.columns, ss.rows);
+        for (int cell = 0; cell < mValues.length; cell++) {
+            mValues[cell] = ss.values[cell];
+            mHasValue[cell] = ss.hasValue[cell];
+            bindCell(cell, false, false);
+        }
+        invalidate();
+    }
+
+    /**
+     * The grid and the value of every cell, which are restored into this view.
+     */
+    private static class SavedState extends BaseSavedState {
+        public int columns;
+        public int rows;
+        public long[] values;
+        public boolean[] hasValue;
+
+        private SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            columns = in.readInt();
+            rows = in.readInt();
+            values = in.createLongArray();
+            hasValue = in.createBooleanArray();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(columns);
+            out.writeInt(rows);
+            out.writeLongArray(values);
+            out.writeBooleanArray(hasValue);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+    }
+
+    /**
+     * Times every active cell from the frames of one clock animation, which runs for as long as
+     * any cell is animating.
+     */
+    private class BoardAnimation extends AnimationClock.Animation {
+
+        BoardAnimation() {
+            super(new LinearInterpolator());
+            setDuration(Long.MAX_VALUE);
+        }
+
+        @Override
+        protected void onUpdate(final float factor) {
+            onFrame(getClock().getFrameTime());
+        }
+
+        @Override
+        protected void onEnd() {
+        }
+    }
+
+    private class BoardPaint extends Paint {
+        @Override
+        public void setTextSize(final float textSize) {
+            super.setTextSize(textSize);
+            setScale(TextSizes.measure(this) / NumberView.DEFAULT_WIDTH);
+        }
+
+        @Override
+        public void set(final Paint src) {
+            super.set(src);
+            setScale(TextSizes.measure(this) / NumberView.DEFAULT_WIDTH);
+        }
+    }
+}
@@ -0,0 +1,860 @@
+package com.deange.numberview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+
+import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.GlyphSet;
+
+/**
+ * Renders an entire number within a single view, as a lighter alternative to
+ * {@link NumberViewGroup}. All digits share one animator, one measure pass and, unless a
+ * {@link PaintProvider} is set, a single path and draw call.
+ * <p>
+ * The measured width is the sum of the wider digit of each transition, so layout is only
+ * requested when a transition starts or ends.
+ * <p>
+ * A number shown while a transition is running joins it: moving digits continue from wherever
+ * they have got to, and every digit arrives when the running transition would have ended.
+ * <p>
+ * Like {@link NumberView}, transitions can be driven from a shared {@link AnimationClock},
+ * adapted through an {@link AnimationGovernor} and recorded into {@link RenderMetrics}.
+ */
+public class NumberTextView extends View {
+
+    private final NumberTextPaint mPaint = new NumberTextPaint();
+    private final Path mPath = new Path();
+    private final Path mGlyphPath = new Path();
+    private final Matrix mMatrix = new Matrix();
+    private float[] mFrame = new float[Glyph.SIZE];
+
+    // Digit slots, indexed from least to most significant. Each morphs from the packed point
+    // data in mFrom, which is its own snapshot once a transition is retargeted, to mTo.
+    private float[][] mFrom = new float[0][];
+    private float[] mFromWidths = new float[0];
+    private float[][] mSnapshots = new float[0][];
+    private Glyph[] mTo = new Glyph[0];
+    private float[][] mDeltas = new float[0][];
+    private Paint[] mSlotPaints;
+    private int mSlotCount;
+
+    private boolean mFirstLayout = true;
+    private boolean mPerformNow;
+    private int mMinShown;
+    private long mNumber;
+    private int mNumberScale;
+    private boolean mGrouping;
+    private boolean mHide = true;
+    private final DigitBuffer mDigits = new DigitBuffer();
+
+    private float mScale;
+    private float mFactor;
+    private boolean mTextSizeResolved;
+    private boolean mRestarting;
+    private long mDuration = NumberView.DEFAULT_ANIMATION_DURATION;
+    private Interpolator mInterpolator;
+    private ValueAnimator mAnimator;
+    private AnimationClock mClock;
+    private AnimationClock.Animation mClockAnimation;
+    private AnimationGovernor mGovernor;
+    private long mLastFrameTime = -1;
+    private RenderMetrics mMetrics;
+    private int mTransitionFrames;
+    private PaintProvider mPaintProvider;
+    private GlyphSet mGlyphSet;
+
+    public NumberTextView(final Context context) {
+        super(context);
+        init();
+    }
+
+    public NumberTextView(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public NumberTextView(final Context context, final AttributeSet attrs, final int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public NumberTextView(
+            final Context context,
+            final AttributeSet attrs,
+            final int defStyleAttr,
+            final int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        init();
+    }
+
+    private void init() {
+        // Nothing here may need a Looper, so that views can be inflated on a background thread.
+        // The animator and the text size are created on first use.
+        setWillNotDraw(false);
+
+        // A new paint with the style as stroke
+        mPaint.setAntiAlias(true);
+        mPaint.setColor(Color.BLACK);
+        mPaint.setStrokeWidth(2f);
+        mPaint.setStyle(Paint.Style.STROKE);
+
+        mScale = 1;
+
+        mInterpolator = new AccelerateDecelerateInterpolator();
+        mClockAnimation = new AnimationClock.Animation(mInterpolator) {
+            @Override
+            protected void onUpdate(final float factor) {
+                onAnimationFrame(factor);
+            }
+
+            @Override
+            protected void onEnd() {
+                onTransitionEnd();
+            }
+        };
+    }
+
+    /* package */ ValueAnimator getAnimator() {
+        if (mAnimator != null) {
+            return mAnimator;
+        }
+
+        // The animated fraction is read directly rather than through a Property<?, Float>,
+        // which would box a new Float on every frame
+        mAnimator = ValueAnimator.ofFloat(0f, 1f);
+        mAnimator.setDuration(mDuration);
+        mAnimator.setInterpolator(mInterpolator);
+        mAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(final ValueAnimator animation) {
+                onAnimationFrame(animation.getAnimatedFraction());
+            }
+        });
+        mAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(final Animator animation) {
+                // Restarting a running animator must not settle the transition being retargeted
+                if (!mRestarting) {
+                    onTransitionEnd();
+                }
+            }
+        });
+        return mAnimator;
+    }
+
+    private void resolveTextSize() {
+        // Until a text size is set, digits are fitted to their default width on first use
+        if (!mTextSizeResolved) {
+            measureTextSize(NumberView.DEFAULT_WIDTH);
+        }
+    }
+
+    private void measureTextSize(final float targetMaxWidth) {
+        setTextSize(TextSizes.fit(mPaint, getResources().getDisplayMetrics(), targetMaxWidth));
+    }
+
+    public void setAnimationDuration(final long duration) {
+        mDuration = duration;
+        if (mAnimator != null) {
+            mAnimator.setDuration(duration);
+        }
+        mClockAnimation.setDuration(duration);
+    }
+
+    public void setInterpolator(final Interpolator interpolator) {
+        mInterpolator = (interpolator == null) ? new LinearInterpolator() : interpolator;
+        if (mAnimator != null) {
+            mAnimator.setInterpolator(mInterpolator);
+        }
+        mClockAnimation.setInterpolator(mInterpolator);
+    }
+
+    /**
+     * Drives transitions from a shared {@code clock} instead of an animator owned by this view,
+     * or from this view's own animator if {@code null}.
+     *
+     * @see NumberView#setAnimationClock(AnimationClock)
+     */
+    public void setAnimationClock(final AnimationClock clock) {
+        if (mClock == clock) return;
+
+        // Any transition in flight is completed before switching
+        if (mClock != null) {
+            if (mClockAnimation.isRunning()) {
+                mClock.cancel(mClockAnimation);
+                setFactor(1f);
+                onTransitionEnd();
+            }
+        } else if (mAnimator != null && mAnimator.isRunning()) {
+            mAnimator.end();
+        }
+
+        mClock = clock;
+    }
+
+    public AnimationClock getAnimationClock() {
+        return mClock;
+    }
+
+    /**
+     * Adapts transitions to the device and its current load through {@code governor}, or
+     * always animates at full quality if {@code null}.
+     *
+     * @see NumberView#setAnimationGovernor(AnimationGovernor)
+     */
+    public void setAnimationGovernor(final AnimationGovernor governor) {
+        mGovernor = governor;
+        if (governor != null) {
+            governor.update(getContext());
+        }
+    }
+
+    public AnimationGovernor getAnimationGovernor() {
+        return mGovernor;
+    }
+
+    /**
+     * Records draw times and transition statistics into {@code metrics}, or nothing if
+     * {@code null}.
+     */
+    public void setRenderMetrics(final RenderMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public RenderMetrics getRenderMetrics() {
+        return mMetrics;
+    }
+
+    public boolean isAnimating() {
+        if (mClock != null) {
+            return mClockAnimation.isRunning();
+        }
+        return mAnimator != null && mAnimator.isRunning();
+    }
+
+    public void setPaint(final Paint paint) {
+        mPaint.set(paint);
+    }
+
+    public Paint getPaint() {
+        return mPaint;
+    }
+
+    public void setTextSize(final int sizeUnit, final float textSize) {
+        final float pixelSize = TypedValue.applyDimension(sizeUnit, textSize, getResources().getDisplayMetrics());
+        setTextSize(pixelSize);
+    }
+
+    public void setTextSize(final float textSize) {
+        mPaint.setTextSize(textSize);
+    }
+
+    public float getTextSize() {
+        resolveTextSize();
+        return mPaint.getTextSize();
+    }
+
+    public void setPaintProvider(final PaintProvider paintProvider) {
+        mPaintProvider = paintProvider;
+        mSlotPaints = null;
+        updateSlotPaints();
+        invalidate();
+    }
+
+    /**
+     * Draws digits from {@code glyphSet} instead of the globally registered {@link Digits},
+     * taking effect the next time a number is shown.
+     */
+    public void setGlyphSet(final GlyphSet glyphSet) {
+        mGlyphSet = glyphSet;
+    }
+
+    public GlyphSet getGlyphSet() {
+        return (mGlyphSet != null) ? mGlyphSet : Digits.getGlyphSet();
+    }
+
+    public long getNumber() {
+        return mNumber;
+    }
+
+    public void show(final int number) {
+        show((long) number);
+    }
+
+    public void showNow(final int number) {
+        showNow((long) number);
+    }
+
+    public void show(final long number) {
+        show(number, 0);
+    }
+
+    public void showNow(final long number) {
+        showNow(number, 0);
+    }
+
+    /**
+     * Shows the fixed-point number {@code unscaled * 10^-scale}, so that
+     * {@code show(12345, 2)} displays "123.45".
+     */
+    public void show(final long unscaled, final int scale) {
+        DigitBuffer.checkScale(scale);
+        mHide = false;
+        mNumber = unscaled;
+        mNumberScale = scale;
+        mPerformNow = isInstant();
+        bindSlots();
+    }
+
+    public void showNow(final long unscaled, final int scale) {
+        DigitBuffer.checkScale(scale);
+        mHide = false;
+        mNumber = unscaled;
+        mNumberScale = scale;
+        mPerformNow = true;
+        bindSlots();
+    }
+
+    public void hide() {
+        mHide = true;
+        mPerformNow = isInstant();
+        bindSlots();
+    }
+
+    public void hideNow() {
+        mHide = true;
+        mPerformNow = true;
+        bindSlots();
+    }
+
+    public void setMinimumNumbersShown(final int minimum) {
+        mMinShown = minimum;
+
+        if (mSlotCount < mMinShown) {
+            ensureCapacity(mMinShown);
+            while (mSlotCount < mMinShown) {
+                resetSlot(mSlotCount, getGlyphSet().glyphFor(getGlyphSet().empty()));
+                mSlotCount++;
+            }
+            updateSlotPaints();
+            requestLayout();
+        }
+    }
+
+    /**
+     * Separates every three digits of the integer part with a grouping separator, taking effect
+     * the next time a number is shown.
+     */
+    public void setGroupingUsed(final boolean grouping) {
+        mGrouping = grouping;
+    }
+
+    public boolean isGroupingUsed() {
+        return mGrouping;
+    }
+
+    private int resolveDigits() {
+        if (mHide) {
+            mDigits.clear();
+            return 0;
+        }
+        return mDigits.set(getGlyphSet(), mNumber, mNumberScale, mGrouping, mMinShown);
+    }
+
+    private int getRequiredSlotCount() {
+        return Math.max(mMinShown, mDigits.length());
+    }
+
+    private void bindSlots() {
+        resolveDigits();
+        final int size = getRequiredSlotCount();
+        final int oldSlotCount = mSlotCount;
+        final float oldWidth = getContentWidth();
+
+        ensureCapacity(size);
+        mSlotCount = Math.max(mSlotCount, size);
+
+        final boolean retarget = !mPerformNow && isAnimating();
+        long remaining = 0;
+
+        boolean changed = false;
+        final Glyph empty = getGlyphSet().glyphFor(getGlyphSet().empty());
+        for (int i = 0; i < mSlotCount; i++) {
+            final Glyph glyph = (i < size) ? getGlyphSet().glyphFor(mDigits.get(i)) : empty;
+            if (i >= oldSlotCount) {
+                // New slots grow out of nothing
+                resetSlot(i, empty);
+            }
+
+            // Leave alone slots whose value is unchanged
+            if (mTo[i] == glyph && (!mPerformNow || mFrom[i] == glyph.getData())) {
+                continue;
+            }
+
+            if (retarget && !changed) {
+                // Restarting from a factor of 0 would otherwise snap moving slots back
+                remaining = getRemainingDuration();
+                snapshotSlots(oldSlotCount);
+            }
+
+            changed = true;
+            if (mPerformNow) {
+                mFrom[i] = glyph.getData();
+                mFromWidths[i] = glyph.getWidth();
+            }
+            mTo[i] = glyph;
+            updateDelta(i);
+        }
+
+        if (mSlotCount != oldSlotCount) {
+            updateSlotPaints();
+        }
+
+        if (!NumberView.fequals(oldWidth, getContentWidth())) {
+            requestLayoutForWidth();
+        }
+        if (changed && retarget) {
+            if (mMetrics != null) {
+                mMetrics.onTransitionRestarted();
+            }
+            playTransition(remaining);
+        } else if (changed) {
+            startTransition(mDuration);
+        }
+    }
+
+    private void resetSlot(final int slot, final Glyph glyph) {
+        mFrom[slot] = glyph.getData();
+        mFromWidths[slot] = glyph.getWidth();
+        mTo[slot] = glyph;
+        updateDelta(slot);
+    }
+
+    /**
+     * Moves the start of every moving slot among the first {@code count} to where the running
+     * transition has got to, and rewinds the transition to match.
+     */
+    private void snapshotSlots(final int count) {
+        final float factor = mFactor;
+        for (int i = 0; i < count; i++) {
+            if (mFrom[i] == mTo[i].getData()) continue;
+
+            // This is safe to do in place when the slot already starts from its snapshot
+            if (mSnapshots[i] == null || mSnapshots[i].length != mFrom[i].length) {
+                mSnapshots[i] = new float[mFrom[i].length];
+            }
+            Glyph.interpolate(mFrom[i], mDeltas[i], factor, mSnapshots[i]);
+            mFromWidths[i] = NumberView.lerp(mFromWidths[i], mTo[i].getWidth(), factor);
+            mFrom[i] = mSnapshots[i];
+            updateDelta(i);
+        }
+        mFactor = 0f;
+    }
+
+    /**
+     * The time left until the running transition ends, in milliseconds.
+     */
+    private long getRemainingDuration() {
+        final long duration;
+        final long played;
+        if (mClock != null) {
+            duration = mClockAnimation.getDuration();
+            played = mClock.getPlayTime(mClockAnimation);
+        } else {
+            duration = mAnimator.getDuration();
+            played = mAnimator.getCurrentPlayTime();
+        }
+        return Math.max(0L, duration - played);
+    }
+
+    private boolean isInstant() {
+        return mGovernor != null && mGovernor.isInstant();
+    }
+
+    private void startTransition(final long requestedDuration) {
+        final long duration = (mGovernor != null)
+                ? mGovernor.getDuration(requestedDuration, mClock == null)
+                : requestedDuration;
+        playTransition(duration);
+    }
+
+    private void playTransition(final long duration) {
+        mLastFrameTime = -1;
+        if (mMetrics != null) {
+            mMetrics.onTransitionStarted();
+        }
+
+        if (mClock != null) {
+            mClockAnimation.setDuration(duration);
+            mClock.start(mClockAnimation);
+        } else {
+            final ValueAnimator animator = getAnimator();
+            mRestarting = true;
+            animator.setDuration(duration);
+            animator.start();
+            mRestarting = false;
+        }
+    }
+
+    private void onAnimationFrame(final float factor) {
+        if (mGovernor != null) {
+            final long frameTime = AnimationUtils.currentAnimationTimeMillis();
+            mGovernor.onFrame(frameTime);
+
+            // Always draw the final frame of a transition
+            if (factor < 1f && !mGovernor.shouldDraw(mLastFrameTime, frameTime)) {
+                return;
+            }
+            mLastFrameTime = frameTime;
+        }
+        setFactor(factor);
+    }
+
+    private void onTransitionEnd() {
+        if (mMetrics != null) {
+            mMetrics.onTransitionEnded(mTransitionFrames);
+        }
+        mTransitionFrames = 0;
+        settle();
+    }
+
+    private void requestLayoutForWidth() {
+        requestLayout();
+        if (mMetrics != null) {
+            mMetrics.onLayoutRequested();
+        }
+    }
+
+    private void settle() {
+        final float oldWidth = getContentWidth();
+
+        for (int i = 0; i < mSlotCount; i++) {
+            mFrom[i] = mTo[i].getData();
+            mFromWidths[i] = mTo[i].getWidth();
+            updateDelta(i);
+        }
+
+        // Hidden slots that are no longer needed can be dropped entirely
+        final Glyph empty = getGlyphSet().glyphFor(getGlyphSet().empty());
+        final int required = getRequiredSlotCount();
+        while (mSlotCount > required && mTo[mSlotCount - 1] == empty) {
+            mSlotCount--;
+        }
+
+        if (!NumberView.fequals(oldWidth, getContentWidth())) {
+            requestLayoutForWidth();
+        }
+    }
+
+    private void updateDelta(final int slot) {
+        // Digits outside the glyph set may have more segments than the rest
+        final int segments = Math.max(Glyph.segmentCount(mFrom[slot]), mTo[slot].getSegmentCount());
+        mFrom[slot] = Glyph.resample(mFrom[slot], segments);
+        mTo[slot] = mTo[slot].resample(segments);
+
+        final int size = Glyph.sizeOf(segments);
+        if (mDeltas[slot].length != size) {
+            mDeltas[slot] = new float[size];
+        }
+        Glyph.delta(mFrom[slot], mTo[slot].getData(), mDeltas[slot]);
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= mFrom.length) return;
+
+        final int newCapacity = Math.max(capacity, mFrom.length * 2);
+        final float[][] from = new float[newCapacity][];
+        final float[] fromWidths = new float[newCapacity];
+        final float[][] snapshots = new float[newCapacity][];
+        final Glyph[] to = new Glyph[newCapacity];
+        final float[][] deltas = new float[newCapacity][];
+        System.arraycopy(mFrom, 0, from, 0, mSlotCount);
+        System.arraycopy(mFromWidths, 0, fromWidths, 0, mSlotCount);
+        System.arraycopy(mSnapshots, 0, snapshots, 0, mSnapshots.length);
+        System.arraycopy(mTo, 0, to, 0, mSlotCount);
+        System.arraycopy(mDeltas, 0, deltas, 0, mDeltas.length);
+        for (int i = mDeltas.length; i < newCapacity; i++) {
+            deltas[i] = new float[Glyph.SIZE];
+        }
+
+        mFrom = from;
+        mFromWidths = fromWidths;
+        mSnapshots = snapshots;
+        mTo = to;
+        mDeltas = deltas;
+    }
+
+    private void updateSlotPaints() {
+        if (mPaintProvider == null) {
+            mSlotPaints = null;
+            return;
+        }
+
+        if (mSlotPaints == null || mSlotPaints.length < mSlotCount) {
+            final Paint[] paints = new Paint[mFrom.length];
+            if (mSlotPaints != null) {
+                System.arraycopy(mSlotPaints, 0, paints, 0, mSlotPaints.length);
+            }
+            mSlotPaints = paints;
+        }
+
+        for (int i = 0; i < mSlotPaints.length; i++) {
+            if (mSlotPaints[i] == null) {
+                mSlotPaints[i] = new Paint();
+            }
+            mSlotPaints[i].set(mPaint);
+            mPaintProvider.mutate(mSlotPaints[i], i);
+        }
+    }
+
+    private void setFactor(final float factor) {
+        mFactor = factor;
+        invalidate();
+    }
+
+    private void setScale(float scale) {
+        if (scale == 0) {
+            throw new IllegalArgumentException("Scale cannot be 0");
+        }
+
+        scale = Math.abs(scale);
+
+        if (mScale == scale) return;
+
+        mScale = scale;
+
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * The width of all digits while animating, in pixels.
+     */
+    private float getContentWidth() {
+        float width = 0;
+        for (int i = 0; i < mSlotCount; i++) {
+            width += Math.max(mFromWidths[i], mTo[i].getWidth());
+        }
+        return mScale * width;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mGovernor != null) {
+            mGovernor.update(getContext());
+        }
+    }
+
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        resolveTextSize();
+
+        final int width = (int) Math.ceil(getContentWidth()) + getPaddingLeft() + getPaddingRight();
+        final int height = (int) Math.ceil(mScale * NumberView.DEFAULT_HEIGHT) + getPaddingTop() + getPaddingBottom();
+
+        setMeasuredDimension(
+                resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(final boolean changed, final int l, final int t, final int r, final int b) {
+        super.onLayout(changed, l, t, r, b);
+
+        // Handles the case of an absolute height specified in the layout params
+        if (mFirstLayout) {
+            mFirstLayout = false;
+            if (getLayoutParams() != null && getLayoutParams().height > 0) {
+                measureTextSize(getLayoutParams().height * NumberView.ASPECT_RATIO);
+            }
+        }
+    }
+
+    @Override
+    public void onDraw(final Canvas canvas) {
+        super.onDraw(canvas);
+
+        final long start = (mMetrics != null) ? System.nanoTime() : 0L;
+
+        Tracing.beginSection("NumberTextView#onDraw");
+        try {
+            drawDigits(canvas);
+        } finally {
+            Tracing.endSection();
+        }
+
+        if (isAnimating()) {
+            mTransitionFrames++;
+        }
+
+        if (mMetrics != null) {
+            mMetrics.onDraw(this, System.nanoTime() - start);
+        }
+    }
+
+    private void drawDigits(final Canvas canvas) {
+        resolveTextSize();
+
+        final float factor = mFactor;
+        final float scale = mScale;
+        final Paint[] slotPaints = mSlotPaints;
+
+        float visualWidth = 0;
+        for (int i = 0; i < mSlotCount; i++) {
+            visualWidth += NumberView.lerp(mFromWidths[i], mTo[i].getWidth(), factor);
+        }
+        visualWidth *= scale;
+
+        // Center the digits within the content area
+        final int contentWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        final int contentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        float x = getPaddingLeft() + (contentWidth - visualWidth) / 2f;
+        final float y = getPaddingTop() + (contentHeight - scale * NumberView.DEFAULT_HEIGHT) / 2f;
+
+        mPath.reset();
+
+        // Lay digits out from most to least significant
+        for (int i = mSlotCount - 1; i >= 0; i--) {
+            final float[] from = mFrom[i];
+            if (mFrame.length != from.length) {
+                mFrame = new float[from.length];
+            }
+
+            final float[] frame = mFrame;
+            Glyph.interpolate(from, mDeltas[i], factor, frame);
+
+            NumberView.buildPath(mGlyphPath, frame);
+
+            mMatrix.setScale(scale, scale);
+            mMatrix.postTranslate(x, y);
+
+            if (slotPaints == null) {
+                mPath.addPath(mGlyphPath, mMatrix);
+            } else {
+                mGlyphPath.transform(mMatrix);
+                canvas.drawPath(mGlyphPath, slotPaints[i]);
+            }
+
+            x += scale * NumberView.lerp(mFromWidths[i], mTo[i].getWidth(), factor);
+        }
+
+        if (slotPaints == null) {
+            canvas.drawPath(mPath, mPaint);
+        }
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        final SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.number = mNumber;
+        ss.scale = mNumberScale;
+        ss.minShown = mMinShown;
+        ss.grouping = mGrouping;
+        ss.hide = mHide;
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        final SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+
+        // Restoring skips straight to the end of any transition that was running
+        mNumber = ss.number;
+        mNumberScale = ss.scale;
+        mGrouping = ss.grouping;
+        mHide = ss.hide;
+        setMinimumNumbersShown(ss.minShown);
+        mPerformNow = true;
+        bindSlots();
+    }
+
+    /**
+     * The state of the whole number, which is restored into this view.
+     */
+    private static class SavedState extends BaseSavedState {
+        public long number;
+        public int scale;
+        public int minShown;
+        public boolean grouping;
+        public boolean hide;
+
+        private SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            number = in.readLong();
+            scale = in.readInt();
+            minShown = in.readInt();
+            grouping = in.readInt() != 0;
+            hide = in.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(number);
+            out.writeInt(scale);
+            out.writeInt(minShown);
+            out.writeInt(grouping ? 1 : 0);
+            out.writeInt(hide ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+    }
+
+    private class NumberTextPaint extends Paint {
+        @Override
+        public void setTextSize(final float textSize) {
+            super.setTextSize(textSize);
+            mTextSizeResolved = true;
+            setScale(TextSizes.measure(this) / NumberView.DEFAULT_WIDTH);
+        }
+
+        @Override
+        public void set(final Paint src) {
+            super.set(src);
+            mTextSizeResolved = true;
+            setScale(TextSizes.measure(this) / NumberView.DEFAULT_WIDTH);
+            updateSlotPaints();
+        }
+    }
+
+}
@@ -2,140 +2,453 @@ package com.deange.numberview;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.os.Build;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.AttributeSet;
-import android.util.Property;
 import android.util.TypedValue;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
 import com.deange.numberview.digits.Digit;
 import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.Glyph;
+import com.deange.numberview.digits.GlyphSet;
+import com.deange.numberview.digits.MorphTable;
 
 public class NumberView extends View {
 
-    private static final boolean DEBUG = true;
-
     public static final long DEFAULT_ANIMATION_DURATION = 500L;
-    public static final float DEFAULT_WIDTH = 140f;
-    public static final float DEFAULT_HEIGHT = 200f;
+    public static final float DEFAULT_WIDTH = Glyph.DEFAULT_WIDTH;
+    public static final float DEFAULT_HEIGHT = Glyph.DEFAULT_HEIGHT;
     public static final float ASPECT_RATIO = DEFAULT_WIDTH / DEFAULT_HEIGHT;
 
-    // "8" is used since it constitutes the widest number drawn
-    private static final String MEASURING_TEXT = "8";
-
-    private static final Property<NumberView, Float> FACTOR =
-            new Property<NumberView, Float>(Float.class, "factor") {
-                @Override
-                public Float get(final NumberView object) {
-                    return object.mFactor;
-                }
-
-                @Override
-                public void set(final NumberView object, final Float value) {
-                    object.mFactor = value;
-                    object.invalidate();
-                }
-            };
+    // Size of the debug HUD text, in dp
+    private static final float DEBUG_TEXT_SIZE = 10f;
+
+    /**
+     * The measured width follows the drawn width on every frame of a transition.
+     */
+    public static final int WIDTH_MODE_ANIMATED = 0;
+
+    /**
+     * The measured width is the wider of the two digits in a transition, and only changes
+     * when a transition starts or ends. The narrower digit is centered while drawing.
+     */
+    public static final int WIDTH_MODE_STABLE = 1;
+
+    /**
+     * The measured width is always that of the widest digit, "8", so changing digits
+     * never requires a new layout pass.
+     */
+    public static final int WIDTH_MODE_TABULAR = 2;
+
+    /**
+     * Digits are drawn as stroked cubic paths.
+     */
+    public static final int RENDER_MODE_PATH = 0;
+
+    /**
+     * Digits are flattened into straight lines and drawn with {@code Canvas#drawLines}, which
+     * is cheaper to stroke, particularly on software canvases. The number of lines depends on
+     * the size of the digit. A round stroke cap is recommended to hide the joins.
+     */
+    public static final int RENDER_MODE_LINES = 1;
 
     private final NumberViewPaint mPaint = new NumberViewPaint();
     private final Path mPath = new Path();
+    private final Matrix mMatrix = new Matrix();
+
+    // Per-transition geometry, computed once in show() rather than on every frame
+    private float[] mDeltaBuffer = new float[Glyph.SIZE];
+    private float[] mFrame = new float[Glyph.SIZE];
+    private float[] mLines = new float[0];
+    private float[] mDelta = mDeltaBuffer;
+    private MorphTable mMorphTable;
 
     private Digit mNext = Digits.empty();
     private Digit mCurrent = Digits.empty();
+    private Glyph mNextGlyph = Digits.glyphFor(mNext);
+    private Glyph mCurrentGlyph = Digits.glyphFor(mCurrent);
+    private GlyphSet mGlyphSet;
+    private GlyphAtlas mGlyphAtlas;
+
+    // The shape that the current transition starts from: either the current glyph, or a
+    // snapshot of a transition that was retargeted part way through
+    private float[] mSnapshot = new float[Glyph.SIZE];
+    private float[] mFrom = mCurrentGlyph.getData();
+    private float mFromWidth = mCurrentGlyph.getWidth();
     private boolean mFirstLayout = true;
 
     private float mWidth;
     private float mHeight;
     private float mScale;
     private float mFactor;
+    private int mWidthMode = WIDTH_MODE_ANIMATED;
+    private int mRenderMode = RENDER_MODE_PATH;
     private ValueAnimator mAnimator;
+    private Interpolator mInterpolator;
+    private boolean mTextSizeResolved;
+    private boolean mRestarting;
+    private long mDuration = DEFAULT_ANIMATION_DURATION;
+    private long mRetargetDuration = -1;
+    private AnimationClock mClock;
+    private AnimationClock.Animation mClockAnimation;
+    private AnimationGovernor mGovernor;
+    private long mLastFrameTime = -1;
+    private RenderMetrics mMetrics;
+    private int mTransitionFrames;
+    private long mLastDrawNanos;
+    private Paint mDebugPaint;
 
     public NumberView(final Context context) {
         super(context);
-        init();
+        init(null, 0, 0);
     }
 
     public NumberView(final Context context, final AttributeSet attrs) {
         super(context, attrs);
-        init();
+        init(attrs, 0, 0);
     }
 
     public NumberView(final Context context, final AttributeSet attrs, final int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        init();
+        init(attrs, defStyleAttr, 0);
     }
 
     @TargetApi(Build.VERSION_CODES.LOLLIPOP)
     public NumberView(final Context context, final AttributeSet attrs, final int defStyleAttr, final int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
-        init();
+        init(attrs, defStyleAttr, defStyleRes);
     }
 
-    private void init() {
+    private void init(final AttributeSet attrs, final int defStyleAttr, final int defStyleRes) {
+        // Nothing here may need a Looper, so that views can be inflated on a background thread.
+        // The animator and the text size are created on first use.
         setWillNotDraw(false);
-
-        // A new paint with the style as stroke
-        mPaint.setAntiAlias(true);
-        mPaint.setColor(Color.BLACK);
-        mPaint.setStrokeWidth(2f);
-        mPaint.setStyle(Paint.Style.STROKE);
+        resetPaint();
 
         // Set up size values
         mScale = 1;
         mWidth = DEFAULT_WIDTH;
         mHeight = DEFAULT_HEIGHT;
 
-        measureTextSize(mWidth);
+        mInterpolator = new AccelerateDecelerateInterpolator();
+        mClockAnimation = new AnimationClock.Animation(mInterpolator) {
+            @Override
+            protected void onUpdate(final float factor) {
+                onAnimationFrame(factor);
+            }
 
-        mAnimator = ObjectAnimator.ofFloat(this, FACTOR, 0f, 1f);
-        mAnimator.setDuration(DEFAULT_ANIMATION_DURATION);
-        mAnimator.setInterpolator(new AccelerateDecelerateInterpolator());
+            @Override
+            protected void onEnd() {
+                onTransitionEnd();
+            }
+        };
+
+        if (attrs != null || defStyleAttr != 0 || defStyleRes != 0) {
+            readAttributes(attrs, defStyleAttr, defStyleRes);
+        }
+    }
+
+    private void readAttributes(final AttributeSet attrs, final int defStyleAttr, final int defStyleRes) {
+        final TypedArray a = getContext().obtainStyledAttributes(
+                attrs, R.styleable.NumberView, defStyleAttr, defStyleRes);
+        try {
+            if (a.hasValue(R.styleable.NumberView_android_textSize)) {
+                setTextSize(a.getDimension(R.styleable.NumberView_android_textSize, 0));
+            }
+            mPaint.setColor(a.getColor(R.styleable.NumberView_android_textColor, mPaint.getColor()));
+            mPaint.setStrokeWidth(a.getDimension(R.styleable.NumberView_digitStrokeWidth, mPaint.getStrokeWidth()));
+            setAnimationDuration(a.getInt(R.styleable.NumberView_android_animationDuration, (int) mDuration));
+        } finally {
+            a.recycle();
+        }
+    }
+
+    /* package */ ValueAnimator getAnimator() {
+        if (mAnimator != null) {
+            return mAnimator;
+        }
+
+        // The animated fraction is read directly rather than through a Property<?, Float>,
+        // which would box a new Float on every frame
+        mAnimator = ValueAnimator.ofFloat(0f, 1f);
+        mAnimator.setDuration(mDuration);
+        mAnimator.setInterpolator(mInterpolator);
+        mAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(final ValueAnimator animation) {
+                onAnimationFrame(animation.getAnimatedFraction());
+            }
+        });
         mAnimator.addListener(new AnimatorListenerAdapter() {
             @Override
             public void onAnimationEnd(final Animator animation) {
-                // End of the current number animation
-                // Begin setting values for the next number in the sequence
-                mCurrent = mNext;
+                // Restarting a running animator must not settle the transition being retargeted
+                if (!mRestarting) {
+                    onTransitionEnd();
+                }
             }
         });
-        mAnimator.start();
+        return mAnimator;
+    }
+
+    private void resetPaint() {
+        // A new paint with the style as stroke
+        mPaint.reset();
+        mPaint.setAntiAlias(true);
+        mPaint.setColor(Color.BLACK);
+        mPaint.setStrokeWidth(2f);
+        mPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    /**
+     * Restores the default paint, size and timing before this view is reused from a
+     * {@link DigitViewPool}.
+     */
+    /* package */ void onRecycled() {
+        resetPaint();
+        mTextSizeResolved = false;
+        setAnimationDuration(DEFAULT_ANIMATION_DURATION);
+        setInterpolator(new AccelerateDecelerateInterpolator());
+        mRetargetDuration = -1;
+    }
+
+    private void onTransitionEnd() {
+        if (mMetrics != null) {
+            mMetrics.onTransitionEnded(mTransitionFrames);
+        }
+        mTransitionFrames = 0;
+
+        // End of the current number animation
+        // Begin setting values for the next number in the sequence
+        final float oldWidth = getStableWidth();
+        mCurrent = mNext;
+        mCurrentGlyph = mNextGlyph;
+        resetFrom();
+        updateDelta();
+        onStableWidthChanged(oldWidth);
+    }
+
+    private void onAnimationFrame(final float factor) {
+        if (mGovernor != null) {
+            final long frameTime = AnimationUtils.currentAnimationTimeMillis();
+            mGovernor.onFrame(frameTime);
+
+            // Always draw the final frame of a transition
+            if (factor < 1f && !mGovernor.shouldDraw(mLastFrameTime, frameTime)) {
+                return;
+            }
+            mLastFrameTime = frameTime;
+        }
+        setFactor(factor);
+    }
+
+    private void startTransition(final long requestedDuration) {
+        mLastFrameTime = -1;
+        if (mMetrics != null) {
+            mMetrics.onTransitionStarted();
+        }
+
+        final long duration = (mGovernor != null)
+                ? mGovernor.getDuration(requestedDuration, mClock == null)
+                : requestedDuration;
+
+        if (mClock != null) {
+            mClockAnimation.setDuration(duration);
+            mClock.start(mClockAnimation);
+        } else {
+            final ValueAnimator animator = getAnimator();
+            mRestarting = true;
+            animator.setDuration(duration);
+            animator.start();
+            mRestarting = false;
+        }
+    }
+
+    private void cancelTransition() {
+        if (mClock != null) {
+            mClock.cancel(mClockAnimation);
+        } else if (mAnimator != null && mAnimator.isRunning()) {
+            // Cancelling ends the animator, which must not settle the transition
+            mRestarting = true;
+            mAnimator.cancel();
+            mRestarting = false;
+        }
+    }
+
+    private void resetFrom() {
+        mFrom = mCurrentGlyph.getData();
+        mFromWidth = mCurrentGlyph.getWidth();
+    }
+
+    private void snapshotFrom() {
+        // Continue from wherever the running transition has got to. This is safe to do in
+        // place when the transition already started from the snapshot.
+        final float factor = mFactor;
+        if (mSnapshot.length != mFrom.length) {
+            mSnapshot = new float[mFrom.length];
+        }
+        Glyph.interpolate(mFrom, mDelta, factor, mSnapshot);
+        mFromWidth = lerp(mFromWidth, mNextGlyph.getWidth(), factor);
+        mFrom = mSnapshot;
+        mFactor = 0f;
+    }
+
+    private void resolveTextSize() {
+        // Until a text size is set, digits are fitted to their default width on first use
+        if (!mTextSizeResolved) {
+            measureTextSize(DEFAULT_WIDTH);
+        }
     }
 
     private void measureTextSize(final float targetMaxWidth) {
         // Calculate the right scale for the text size
-        int sp = 0;
-        float px = 0;
-        float validPx;
-        do {
-            sp++;
-            validPx = px;
-            px = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, sp, getResources().getDisplayMetrics());
-            mPaint.setTextSizeInternal(px);
-        } while (mPaint.measureText(MEASURING_TEXT) < targetMaxWidth);
-
-        setTextSize(validPx);
+        setTextSize(TextSizes.fit(mPaint, getResources().getDisplayMetrics(), targetMaxWidth));
     }
 
     public void setAnimationDuration(final long duration) {
-        mAnimator.setDuration(duration);
+        mDuration = duration;
+        if (mAnimator != null) {
+            mAnimator.setDuration(duration);
+        }
+        mClockAnimation.setDuration(duration);
+    }
+
+    /**
+     * Sets the duration of transitions that begin while another is still running, which
+     * continue smoothly from the current shape. A negative value, the default, uses the
+     * regular animation duration.
+     */
+    public void setRetargetDuration(final long duration) {
+        mRetargetDuration = duration;
+    }
+
+    public long getRetargetDuration() {
+        return mRetargetDuration;
     }
 
     public void setInterpolator(final Interpolator interpolator) {
-        mAnimator.setInterpolator((interpolator == null) ? new LinearInterpolator() : interpolator);
+        mInterpolator = (interpolator == null) ? new LinearInterpolator() : interpolator;
+        if (mAnimator != null) {
+            mAnimator.setInterpolator(mInterpolator);
+        }
+        mClockAnimation.setInterpolator(mInterpolator);
+    }
+
+    /**
+     * Drives transitions from a shared {@code clock} instead of an animator owned by this view,
+     * or from this view's own animator if {@code null}.
+     */
+    public void setAnimationClock(final AnimationClock clock) {
+        if (mClock == clock) return;
+
+        // Any transition in flight is completed before switching
+        if (mClock != null) {
+            if (mClockAnimation.isRunning()) {
+                mClock.cancel(mClockAnimation);
+                setFactor(1f);
+                onTransitionEnd();
+            }
+        } else if (mAnimator != null && mAnimator.isRunning()) {
+            mAnimator.end();
+        }
+
+        mClock = clock;
+    }
+
+    public AnimationClock getAnimationClock() {
+        return mClock;
+    }
+
+    /**
+     * Adapts transitions to the device and its current load through {@code governor}, or
+     * always animates at full quality if {@code null}.
+     */
+    public void setAnimationGovernor(final AnimationGovernor governor) {
+        mGovernor = governor;
+        if (governor != null) {
+            governor.update(getContext());
+        }
+    }
+
+    public AnimationGovernor getAnimationGovernor() {
+        return mGovernor;
+    }
+
+    /**
+     * Draws this digit from {@code atlas} while it is idle on a software-rendered canvas,
+     * instead of stroking its path on every redraw, or always strokes it if {@code null}.
+     */
+    public void setGlyphAtlas(final GlyphAtlas atlas) {
+        mGlyphAtlas = atlas;
+        invalidate();
+    }
+
+    public GlyphAtlas getGlyphAtlas() {
+        return mGlyphAtlas;
+    }
+
+    /**
+     * Records draw times and transition statistics into {@code metrics}, or nothing if
+     * {@code null}.
+     */
+    public void setRenderMetrics(final RenderMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public RenderMetrics getRenderMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Overlays this view's bounds, the time taken by its last draw in microseconds and the
+     * frames drawn in the current transition.
+     */
+    public void setDebugHudEnabled(final boolean enabled) {
+        if (enabled == isDebugHudEnabled()) return;
+
+        if (enabled) {
+            mDebugPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mDebugPaint.setColor(Color.RED);
+            mDebugPaint.setStyle(Paint.Style.STROKE);
+            mDebugPaint.setTextSize(DEBUG_TEXT_SIZE * getResources().getDisplayMetrics().density);
+        } else {
+            mDebugPaint = null;
+        }
+        invalidate();
+    }
+
+    public boolean isDebugHudEnabled() {
+        return mDebugPaint != null;
+    }
+
+    /**
+     * Shares transition geometry with other views through {@code morphTable}, or computes it
+     * per view if {@code null}.
+     */
+    public void setMorphTable(final MorphTable morphTable) {
+        mMorphTable = morphTable;
+        updateDelta();
+    }
+
+    public MorphTable getMorphTable() {
+        return mMorphTable;
     }
 
     public void setPaint(final Paint paint) {
@@ -156,6 +469,7 @@ public class NumberView extends View {
     }
 
     public float getTextSize() {
+        resolveTextSize();
         return getPaint().getTextSize();
     }
 
@@ -163,29 +477,225 @@ public class NumberView extends View {
         return mNext;
     }
 
+    /**
+     * Draws digits from {@code glyphSet} instead of the globally registered {@link Digits},
+     * so that views with different glyphs can coexist. The digit being shown is replaced with
+     * the glyph for the same character in the new set, if there is one.
+     */
+    public void setGlyphSet(final GlyphSet glyphSet) {
+        setGlyphSet(glyphSet, true);
+    }
+
+    /**
+     * Draws digits from {@code glyphSet}. Unless {@code animate} is set, any running transition
+     * is cancelled and the current digit is rebound without starting an animation.
+     */
+    public void setGlyphSet(final GlyphSet glyphSet, final boolean animate) {
+        mGlyphSet = glyphSet;
+
+        final Digit digit = getGlyphSet().forChar(mNext.getChar());
+        final Digit shown = (digit == null) ? getGlyphSet().empty() : digit;
+        if (animate) {
+            showNow(shown);
+        } else {
+            // The glyph may have changed even if the digit has not, so always rebind
+            bindNow(shown);
+        }
+    }
+
+    public GlyphSet getGlyphSet() {
+        return (mGlyphSet != null) ? mGlyphSet : Digits.getGlyphSet();
+    }
+
     public void hide() {
-        show(Digits.empty());
+        show(getGlyphSet().empty());
     }
 
     public void hideNow() {
-        showNow(Digits.empty());
+        showNow(getGlyphSet().empty());
     }
 
     public void show(final Digit digit) {
         if (digit == null) {
             throw new IllegalArgumentException("digit cannot be null");
         }
+
+        // Already showing or animating towards this digit
+        if (digit == mNext) return;
+
+        if (mGovernor != null && mGovernor.isInstant()) {
+            showNow(digit);
+            return;
+        }
+
+        final float oldWidth = getStableWidth();
+        final boolean retarget = isAnimating();
+        if (retarget) {
+            snapshotFrom();
+            if (mMetrics != null) {
+                mMetrics.onTransitionRestarted();
+            }
+        }
+
         mNext = digit;
-        mAnimator.start();
+        mNextGlyph = getGlyphSet().glyphFor(digit);
+        updateDelta();
+        onStableWidthChanged(oldWidth);
+        startTransition((retarget && mRetargetDuration >= 0) ? mRetargetDuration : mDuration);
     }
 
     public void showNow(final Digit digit) {
         if (digit == null) {
             throw new IllegalArgumentException("digit cannot be null");
         }
+
+        // Already showing this digit, with no transition to cut short
+        if (digit == mNext && digit == mCurrent && !isAnimating()) return;
+
+        final float oldWidth = getStableWidth();
+        mNext = digit;
+        mCurrent = digit;
+        mNextGlyph = getGlyphSet().glyphFor(digit);
+        mCurrentGlyph = mNextGlyph;
+        resetFrom();
+        updateDelta();
+        onStableWidthChanged(oldWidth);
+        startTransition(mDuration);
+    }
+
+    /**
+     * Shows {@code digit}, animating to it if {@code animate} is set. Otherwise any running
+     * transition is cancelled and the digit is shown without starting an animation, which is
+     * cheap enough to do every time a recycled view is rebound.
+     */
+    public void bind(final Digit digit, final boolean animate) {
+        if (animate) {
+            show(digit);
+            return;
+        }
+
+        if (digit == null) {
+            throw new IllegalArgumentException("digit cannot be null");
+        }
+
+        if (digit == mNext && digit == mCurrent && !isAnimating()) return;
+
+        bindNow(digit);
+    }
+
+    private void bindNow(final Digit digit) {
+        cancelTransition();
+        mTransitionFrames = 0;
+
+        final float oldWidth = getStableWidth();
         mNext = digit;
         mCurrent = digit;
-        mAnimator.start();
+        mNextGlyph = getGlyphSet().glyphFor(digit);
+        mCurrentGlyph = mNextGlyph;
+        resetFrom();
+        updateDelta();
+        onStableWidthChanged(oldWidth);
+
+        // Settle the drawn width now rather than on the next draw, so that a single layout
+        // pass is enough
+        final float width = Math.max(mScale * mFromWidth, 1f);
+        if (!fequals(mWidth, width)) {
+            mWidth = width;
+            if (mWidthMode == WIDTH_MODE_ANIMATED) {
+                requestLayout();
+            }
+        }
+        setFactor(1f);
+    }
+
+    /**
+     * Sets how the measured width of this view responds to changing digits, one of
+     * {@link #WIDTH_MODE_ANIMATED}, {@link #WIDTH_MODE_STABLE} or {@link #WIDTH_MODE_TABULAR}.
+     */
+    public void setWidthMode(final int widthMode) {
+        checkWidthMode(widthMode);
+
+        if (mWidthMode == widthMode) return;
+
+        mWidthMode = widthMode;
+        requestLayout();
+        invalidate();
+    }
+
+    public int getWidthMode() {
+        return mWidthMode;
+    }
+
+    /**
+     * Sets how digits are drawn, either {@link #RENDER_MODE_PATH} or {@link #RENDER_MODE_LINES}.
+     */
+    public void setRenderMode(final int renderMode) {
+        if (renderMode != RENDER_MODE_PATH && renderMode != RENDER_MODE_LINES) {
+            throw new IllegalArgumentException("Unknown render mode " + renderMode);
+        }
+
+        if (mRenderMode == renderMode) return;
+
+        mRenderMode = renderMode;
+        invalidate();
+    }
+
+    public int getRenderMode() {
+        return mRenderMode;
+    }
+
+    /* package */ static void checkWidthMode(final int widthMode) {
+        if (widthMode != WIDTH_MODE_ANIMATED
+                && widthMode != WIDTH_MODE_STABLE
+                && widthMode != WIDTH_MODE_TABULAR) {
+            throw new IllegalArgumentException("Unknown width mode " + widthMode);
+        }
+    }
+
+    private float getStableWidth() {
+        switch (mWidthMode) {
+            case WIDTH_MODE_STABLE:
+                return mScale * Math.max(mFromWidth, mNextGlyph.getWidth());
+            case WIDTH_MODE_TABULAR:
+                return mScale * DEFAULT_WIDTH;
+            default:
+                return -1;
+        }
+    }
+
+    private void onStableWidthChanged(final float oldWidth) {
+        if (mWidthMode != WIDTH_MODE_ANIMATED && !fequals(oldWidth, getStableWidth())) {
+            requestLayout();
+        }
+    }
+
+    private void updateDelta() {
+        // Glyphs of one glyph set always have the same number of segments, but digits from
+        // outside of it, or from a previous glyph set, may not
+        final int segments = Math.max(Glyph.segmentCount(mFrom), mNextGlyph.getSegmentCount());
+        mNextGlyph = mNextGlyph.resample(segments);
+        if (Glyph.segmentCount(mFrom) != segments) {
+            mSnapshot = Glyph.resample(mFrom, segments);
+            mFrom = mSnapshot;
+        }
+        if (mDeltaBuffer.length != mFrom.length) {
+            mDeltaBuffer = new float[mFrom.length];
+        }
+
+        if (mFrom != mCurrentGlyph.getData()) {
+            mDelta = mDeltaBuffer;
+            Glyph.delta(mFrom, mNextGlyph.getData(), mDelta);
+        } else if (mMorphTable != null) {
+            mDelta = mMorphTable.get(mCurrentGlyph, mNextGlyph);
+        } else {
+            mDelta = mDeltaBuffer;
+            Glyph.delta(mCurrentGlyph, mNextGlyph, mDelta);
+        }
+    }
+
+    private void setFactor(final float factor) {
+        mFactor = factor;
+        invalidate();
     }
 
     private void setScale(float scale) {
@@ -207,31 +717,48 @@ public class NumberView extends View {
         invalidate();
     }
 
-    private boolean isAnimating() {
-        return mAnimator.isRunning();
+    public boolean isAnimating() {
+        if (mClock != null) {
+            return mClockAnimation.isRunning();
+        }
+        return mAnimator != null && mAnimator.isRunning();
     }
 
-    private float lerp(float v0, float v1, float t) {
+    /* package */ static float lerp(float v0, float v1, float t) {
         return (1 - t) * v0 + t * v1;
     }
 
-    private boolean fequals(final float f0, final float f1) {
+    /* package */ static boolean fequals(final float f0, final float f1) {
         final float ulp0 = Math.ulp(f0);
         final float ulp1 = Math.ulp(f1);
         return Math.abs(f0 - f1) <= Math.max(ulp0, ulp1);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mGovernor != null) {
+            mGovernor.update(getContext());
+        }
+    }
+
     @Override
     protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        resolveTextSize();
+
         final int minWidth = getSuggestedMinimumWidth();
         final int minHeight = getSuggestedMinimumHeight();
         int width, height;
 
         if (getLayoutParams().width == ViewGroup.LayoutParams.WRAP_CONTENT) {
-            if (!isAnimating()) {
-                mWidth = mScale * mCurrent.getWidth();
+            if (mWidthMode != WIDTH_MODE_ANIMATED) {
+                width = (int) Math.max(minWidth, getStableWidth());
+            } else {
+                if (!isAnimating()) {
+                    mWidth = mScale * mCurrentGlyph.getWidth();
+                }
+                width = (int) Math.max(minWidth, mWidth);
             }
-            width = (int) Math.max(minWidth, mWidth);
         } else {
             width = MeasureSpec.getSize(widthMeasureSpec);
         }
@@ -267,55 +794,132 @@ public class NumberView extends View {
     public void onDraw(final Canvas canvas) {
         super.onDraw(canvas);
 
-        final Digit thisNumber = mCurrent;
-        final Digit nextNumber = mNext;
+        final boolean measured = mMetrics != null || mDebugPaint != null;
+        final long start = measured ? System.nanoTime() : 0L;
 
-        final float[][] current = thisNumber.getPoints();
-        final float[][] next = nextNumber.getPoints();
-        final float[][] curr1 = thisNumber.getControlPoints1();
-        final float[][] next1 = nextNumber.getControlPoints1();
-        final float[][] curr2 = thisNumber.getControlPoints2();
-        final float[][] next2 = nextNumber.getControlPoints2();
+        Tracing.beginSection("NumberView#onDraw");
+        try {
+            drawDigit(canvas);
+        } finally {
+            Tracing.endSection();
+        }
+
+        if (isAnimating()) {
+            mTransitionFrames++;
+        }
+
+        if (measured) {
+            mLastDrawNanos = System.nanoTime() - start;
+            if (mMetrics != null) {
+                mMetrics.onDraw(this, mLastDrawNanos);
+            }
+        }
+
+        if (mDebugPaint != null) {
+            drawDebugHud(canvas);
+        }
+    }
+
+    private void drawDigit(final Canvas canvas) {
+        resolveTextSize();
 
         // A factor of the difference between current and next frame based on interpolation
         // If we ourselves did not specifically request drawing, then draw our previous state
         final float factor = mFactor;
 
-        final float thisWidth = mScale * thisNumber.getWidth();
-        final float nextWidth = mScale * nextNumber.getWidth();
-        final float interpolatedWidth = lerp(thisWidth, nextWidth, factor);
-        if (!fequals(thisWidth, nextWidth) || !fequals(mWidth, interpolatedWidth)) {
-            mWidth = Math.max(interpolatedWidth, 1f);
-            requestLayout();
+        final float thisWidth = mScale * mFromWidth;
+        final float nextWidth = mScale * mNextGlyph.getWidth();
+        final float interpolatedWidth = Math.max(lerp(thisWidth, nextWidth, factor), 1f);
+        if (!fequals(mWidth, interpolatedWidth)) {
+            mWidth = interpolatedWidth;
+
+            // Other width modes keep their measured size and only center the drawn width
+            if (mWidthMode == WIDTH_MODE_ANIMATED) {
+                requestLayout();
+                if (mMetrics != null) {
+                    mMetrics.onLayoutRequested();
+                }
+            }
         }
 
         final float translateX = ((float) getMeasuredWidth() - mWidth) / 2f;
         final float translateY = ((float) getMeasuredHeight() - mHeight) / 2f;
 
-        // Reset the path
-        mPath.reset();
+        if (!drawFromAtlas(canvas, translateX, translateY)) {
+            drawGlyph(canvas, factor, translateX, translateY);
+        }
+    }
+
+    private void drawGlyph(final Canvas canvas, final float factor, final float translateX, final float translateY) {
+        // Interpolate every point in one pass over the packed glyph data
+        if (mFrame.length != mFrom.length) {
+            mFrame = new float[mFrom.length];
+        }
+        final float[] frame = mFrame;
+        Glyph.interpolate(mFrom, mDelta, factor, frame);
+
+        if (mRenderMode == RENDER_MODE_LINES) {
+            final int lines = Glyph.linesPerCubic(mScale);
+            final int size = Glyph.flattenedSize(Glyph.segmentCount(frame), lines);
+            if (mLines.length < size) {
+                mLines = new float[size];
+            }
 
-        // Draw the first point
-        mPath.moveTo(
-                mScale * (lerp(current[0][0], next[0][0], factor) + translateX),
-                mScale * (lerp(current[0][1], next[0][1], factor) + translateY));
+            // Same mapping as the matrix below, applied while flattening
+            final int count = Glyph.flatten(frame, lines, mScale, translateX, translateY, mLines);
+            canvas.drawLines(mLines, 0, count, mPaint);
+
+        } else {
+            // Build the path in glyph space
+            buildPath(mPath, frame);
+
+            // Map into view space in one go. The path is transformed rather than the canvas
+            // so that the stroke width is not scaled along with the glyph.
+            // The centering offset is in pixels, so it is applied after scaling.
+            mMatrix.setScale(mScale, mScale);
+            mMatrix.postTranslate(translateX, translateY);
+            mPath.transform(mMatrix);
+
+            // Draw the path
+            canvas.drawPath(mPath, mPaint);
+        }
+    }
 
-        // Connect the rest of the points as a bezier curve
-        for (int i = 0; i < 4; i++) {
-            mPath.cubicTo(
-                    mScale * (lerp(curr1[i][0], next1[i][0], factor) + translateX),
-                    mScale * (lerp(curr1[i][1], next1[i][1], factor) + translateY),
-                    mScale * (lerp(curr2[i][0], next2[i][0], factor) + translateX),
-                    mScale * (lerp(curr2[i][1], next2[i][1], factor) + translateY),
-                    mScale * (lerp(current[i + 1][0], next[i + 1][0], factor) + translateX),
-                    mScale * (lerp(current[i + 1][1], next[i + 1][1], factor) + translateY));
+    private boolean drawFromAtlas(final Canvas canvas, final float translateX, final float translateY) {
+        // Only idle digits, settled on a registered shape, are drawn from the atlas
+        if (mGlyphAtlas == null
+                || canvas.isHardwareAccelerated()
+                || isAnimating()
+                || mCurrentGlyph != mNextGlyph
+                || mFrom != mCurrentGlyph.getData()
+                || !GlyphAtlas.isCacheable(mPaint)) {
+            return false;
         }
 
-        // Draw the path
-        canvas.drawPath(mPath, mPaint);
+        final Bitmap bitmap = mGlyphAtlas.get(mCurrentGlyph, mPaint, mScale);
+        final int padding = GlyphAtlas.getPadding(mPaint);
+        canvas.drawBitmap(bitmap, translateX - padding, translateY - padding, null);
+        return true;
+    }
+
+    private void drawDebugHud(final Canvas canvas) {
+        canvas.drawRect(0, 0, getWidth(), getHeight(), mDebugPaint);
 
-        if (DEBUG) {
-            canvas.drawRect(0, 0, getWidth(), getHeight(), mPaint);
+        final float lineHeight = mDebugPaint.getTextSize();
+        mDebugPaint.setStyle(Paint.Style.FILL);
+        canvas.drawText(mLastDrawNanos / 1000L + "us", 2f, lineHeight, mDebugPaint);
+        canvas.drawText(mTransitionFrames + "f", 2f, 2 * lineHeight, mDebugPaint);
+        mDebugPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    /**
+     * Resets {@code path} to the packed point data in {@code frame}, in glyph space.
+     */
+    /* package */ static void buildPath(final Path path, final float[] frame) {
+        path.reset();
+        path.moveTo(frame[0], frame[1]);
+        for (int i = 2; i < frame.length; i += 6) {
+            path.cubicTo(frame[i], frame[i + 1], frame[i + 2], frame[i + 3], frame[i + 4], frame[i + 5]);
         }
     }
 
@@ -324,8 +928,8 @@ public class NumberView extends View {
         final SavedState ss = new SavedState(super.onSaveInstanceState());
 
         // If we are animating while saving state, skip to the end by saving mCurrent as mNext
-        ss.next = mNext;
-        ss.current = isAnimating() ? mNext : mCurrent;
+        ss.next = mNext.getChar();
+        ss.current = isAnimating() ? mNext.getChar() : mCurrent.getChar();
 
         return ss;
     }
@@ -340,13 +944,24 @@ public class NumberView extends View {
         final SavedState ss = (SavedState) state;
         super.onRestoreInstanceState(ss.getSuperState());
 
-        mNext = ss.next;
-        mCurrent = ss.current;
+        mNext = resolveSavedDigit(ss.next);
+        mCurrent = resolveSavedDigit(ss.current);
+        mNextGlyph = getGlyphSet().glyphFor(mNext);
+        mCurrentGlyph = getGlyphSet().glyphFor(mCurrent);
+        resetFrom();
+        updateDelta();
+    }
+
+    private Digit resolveSavedDigit(final char character) {
+        // Digits that were never registered cannot be restored
+        final Digit digit = getGlyphSet().forChar(character);
+        return (digit == null) ? getGlyphSet().empty() : digit;
     }
 
     private static class SavedState extends BaseSavedState {
-        public Digit next;
-        public Digit current;
+        // Digits are saved by character and restored as their registered instances
+        public char next;
+        public char current;
 
         private SavedState(Parcelable superState) {
             super(superState);
@@ -354,15 +969,15 @@ public class NumberView extends View {
 
         private SavedState(Parcel in) {
             super(in);
-            next = (Digit) in.readSerializable();
-            current = (Digit) in.readSerializable();
+            next = (char) in.readInt();
+            current = (char) in.readInt();
         }
 
         @Override
         public void writeToParcel(Parcel out, int flags) {
             super.writeToParcel(out, flags);
-            out.writeSerializable(next);
-            out.writeSerializable(current);
+            out.writeInt(next);
+            out.writeInt(current);
         }
 
         public static final Parcelable.Creator<SavedState> CREATOR =
@@ -377,21 +992,49 @@ public class NumberView extends View {
                 };
     }
 
-    private class NumberViewPaint extends Paint {
+    private class NumberViewPaint extends Paint implements GlyphAtlas.ShadowLayerAware {
+        private boolean mHasShadowLayer;
+
         @Override
         public void setTextSize(final float textSize) {
             super.setTextSize(textSize);
-            setScale(measureText(MEASURING_TEXT) / DEFAULT_WIDTH);
+            mTextSizeResolved = true;
+            setScale(TextSizes.measure(this) / DEFAULT_WIDTH);
         }
 
         @Override
         public void set(final Paint src) {
             super.set(src);
-            setScale(measureText(MEASURING_TEXT) / DEFAULT_WIDTH);
+
+            // The shadow layer of other paints cannot be read, so assume they have one
+            mHasShadowLayer = !(src instanceof GlyphAtlas.ShadowLayerAware)
+                    || ((GlyphAtlas.ShadowLayerAware) src).hasShadowLayer();
+
+            mTextSizeResolved = true;
+            setScale(TextSizes.measure(this) / DEFAULT_WIDTH);
         }
 
-        protected void setTextSizeInternal(final float textSize) {
-            super.setTextSize(textSize);
+        @Override
+        public void reset() {
+            super.reset();
+            mHasShadowLayer = false;
+        }
+
+        @Override
+        public void setShadowLayer(final float radius, final float dx, final float dy, final int shadowColor) {
+            super.setShadowLayer(radius, dx, dy, shadowColor);
+            mHasShadowLayer = radius > 0;
+        }
+
+        @Override
+        public void clearShadowLayer() {
+            super.clearShadowLayer();
+            mHasShadowLayer = false;
+        }
+
+        @Override
+        public boolean hasShadowLayer() {
+            return mHasShadowLayer;
         }
     }
 
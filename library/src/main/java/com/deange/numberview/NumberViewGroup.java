@@ -1,37 +1,97 @@
 package com.deange.numberview;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.content.Context;
+import android.content.res.TypedArray;
 import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
+import android.util.DisplayMetrics;
 import android.view.Gravity;
+import android.view.ViewTreeObserver;
+import android.view.animation.DecelerateInterpolator;
 import android.widget.LinearLayout;
 
 import com.deange.numberview.digits.Digit;
 import com.deange.numberview.digits.Digits;
+import com.deange.numberview.digits.GlyphSet;
+import com.deange.numberview.digits.MorphTable;
 
 public class NumberViewGroup extends LinearLayout {
 
+    public static final long DEFAULT_TRIM_DELAY = 1000L;
+
     private boolean mPerformNow;
+    private boolean mBinding;
     private int mMinShown;
-    private int mNumber;
+    private long mNumber;
+    private int mScale;
+    private boolean mGrouping;
     private boolean mHide;
+    private int mWidthMode = NumberView.WIDTH_MODE_ANIMATED;
+    private int mRenderMode = NumberView.RENDER_MODE_PATH;
+    private float mAutoFitTextSize;
+    private int mAutoFitWidth;
+    private boolean mAutoFitPending;
 
     private PaintProvider mPaintProvider;
+    private MorphTable mMorphTable;
+    private AnimationClock mClock;
+    private AnimationGovernor mGovernor;
+    private GlyphSet mGlyphSet;
+    private GlyphAtlas mGlyphAtlas;
+    private RenderMetrics mMetrics;
+    private boolean mDebugHudEnabled;
+    private DigitViewPool mPool;
+    private float mTextSize;
+    private float mStrokeWidth = -1;
+    private int mTextColor;
+    private boolean mHasTextColor;
+    private long mAnimationDuration = -1;
+    private long mTrimDelay = DEFAULT_TRIM_DELAY;
+
+    // Counting towards a number with animateTo()
+    private ValueAnimator mCountAnimator;
+    private boolean mCounting;
+    private long mCountFrom;
+    private long mCountTo;
+    private int mSpinningDigits;
+
+    private final DigitBuffer mDigits = new DigitBuffer();
+    private final Runnable mTrimRunnable = new Runnable() {
+        @Override
+        public void run() {
+            trimChildren();
+        }
+    };
+    private final ViewTreeObserver.OnPreDrawListener mAutoFitListener =
+            new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    cancelAutoFit();
+
+                    // Resized digits are measured again first, so skip drawing them at the old size
+                    return !autoFitDigits(true);
+                }
+            };
 
     public NumberViewGroup(final Context context) {
         super(context);
-        init();
+        init(null, 0, 0);
     }
 
     public NumberViewGroup(final Context context, final AttributeSet attrs) {
         super(context, attrs);
-        init();
+        init(attrs, 0, 0);
     }
 
     public NumberViewGroup(final Context context, final AttributeSet attrs, final int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        init();
+        init(attrs, defStyleAttr, 0);
     }
 
     @TargetApi(Build.VERSION_CODES.LOLLIPOP)
@@ -41,74 +101,236 @@ public class NumberViewGroup extends LinearLayout {
             final int defStyleAttr,
             final int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
-        init();
+        init(attrs, defStyleAttr, defStyleRes);
     }
 
-    private void init() {
+    private void init(final AttributeSet attrs, final int defStyleAttr, final int defStyleRes) {
         setOrientation(HORIZONTAL);
         setGravity(Gravity.CENTER);
+
+        if (attrs != null || defStyleAttr != 0 || defStyleRes != 0) {
+            readAttributes(attrs, defStyleAttr, defStyleRes);
+        }
+    }
+
+    private void readAttributes(final AttributeSet attrs, final int defStyleAttr, final int defStyleRes) {
+        final TypedArray a = getContext().obtainStyledAttributes(
+                attrs, R.styleable.NumberViewGroup, defStyleAttr, defStyleRes);
+        try {
+            mTextSize = a.getDimension(R.styleable.NumberViewGroup_android_textSize, mTextSize);
+            mStrokeWidth = a.getDimension(R.styleable.NumberViewGroup_digitStrokeWidth, mStrokeWidth);
+            mAnimationDuration = a.getInt(R.styleable.NumberViewGroup_android_animationDuration, (int) mAnimationDuration);
+            if (a.hasValue(R.styleable.NumberViewGroup_android_textColor)) {
+                setTextColor(a.getColor(R.styleable.NumberViewGroup_android_textColor, 0));
+            }
+            setMinimumNumbersShown(a.getInt(R.styleable.NumberViewGroup_minimumNumbersShown, mMinShown));
+        } finally {
+            a.recycle();
+        }
+    }
+
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        if (mAutoFitTextSize > 0 && MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            mAutoFitWidth = MeasureSpec.getSize(widthMeasureSpec) - getPaddingLeft() - getPaddingRight();
+
+            // Resizing digits requests a layout, so they are resized once measuring is done
+            if (!mAutoFitPending && autoFitDigits(false)) {
+                mAutoFitPending = true;
+                getViewTreeObserver().addOnPreDrawListener(mAutoFitListener);
+            }
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    /**
+     * Returns whether any digit is not at the text size that fits it into an equal share of the
+     * width last measured, and resizes those digits if {@code apply} is set.
+     */
+    private boolean autoFitDigits(final boolean apply) {
+        final int count = getChildCount();
+        if (count == 0 || mAutoFitWidth <= 0 || mAutoFitTextSize <= 0) return false;
+
+        // Every digit fits if the widest one does, so size them all to an equal share
+        final DisplayMetrics metrics = getResources().getDisplayMetrics();
+        final float slotWidth = (float) mAutoFitWidth / count;
+        boolean changed = false;
+        for (int i = 0; i < count; i++) {
+            final NumberView child = getDigitAt(i);
+            final float fitted = TextSizes.fit(child.getPaint(), metrics, slotWidth);
+            final float textSize = Math.min(mAutoFitTextSize, fitted);
+            if (child.getPaint().getTextSize() != textSize) {
+                if (!apply) return true;
+                child.setTextSize(textSize);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void cancelAutoFit() {
+        if (mAutoFitPending) {
+            mAutoFitPending = false;
+            getViewTreeObserver().removeOnPreDrawListener(mAutoFitListener);
+        }
     }
 
     protected NumberView addNewChild() {
-        final NumberView child = new NumberView(getContext());
+        final NumberView recycled = (mPool != null) ? mPool.acquire(getContext()) : null;
+        final NumberView child = (recycled != null) ? recycled : new NumberView(getContext());
+        child.setMorphTable(mMorphTable);
+        if (mGlyphSet != null || recycled != null) {
+            child.setGlyphSet(mGlyphSet, false);
+        }
+        child.setAnimationClock(mClock);
+        child.setAnimationGovernor(mGovernor);
+        child.setWidthMode(mWidthMode);
+        child.setRenderMode(mRenderMode);
+        child.setGlyphAtlas(mGlyphAtlas);
+        child.setRenderMetrics(mMetrics);
+        child.setDebugHudEnabled(mDebugHudEnabled);
+        applyStyle(child);
         if (mPaintProvider != null) {
             mPaintProvider.mutate(child.getPaint(), getChildCount());
         }
 
-        child.hideNow();
-        addView(child, 0);
+        // The group saves the number as a whole, so digits need not save their own state
+        child.setSaveEnabled(false);
+        child.bind(getGlyphSet().empty(), false);
+        addView(child, 0, generateDefaultLayoutParams());
 
         return child;
     }
 
-    private Digit resolveDigit(int number, int digit) {
-        return (mHide) ? Digits.empty() : Digits.forInt((int) ((number / Math.pow(10, digit)) % 10));
+    private void applyStyle(final NumberView child) {
+        if (mTextSize > 0) {
+            child.setTextSize(mTextSize);
+        }
+        if (mStrokeWidth >= 0) {
+            child.getPaint().setStrokeWidth(mStrokeWidth);
+        }
+        if (mHasTextColor) {
+            child.getPaint().setColor(mTextColor);
+        }
+        if (mAnimationDuration >= 0) {
+            child.setAnimationDuration(mAnimationDuration);
+        }
+    }
+
+    private int resolveDigits() {
+        if (mHide) {
+            mDigits.clear();
+            return 0;
+        }
+        return mDigits.set(getGlyphSet(), mNumber, mScale, mGrouping, mMinShown);
     }
 
-    private int getIntLength(final int number) {
-        // Yeah it's ugly as sin but it works, and it works fast.
-        final int n = (number == Integer.MIN_VALUE) ? Integer.MAX_VALUE : Math.abs(number);
-        return n < 100000
-                ? n < 100 ? n < 10 ? 1 : 2 : n < 1000 ? 3 : n < 10000 ? 4 : 5
-                : n < 10000000 ? n < 1000000 ? 6 : 7 : n < 100000000 ? 8 : n < 1000000000 ? 9 : 10;
+    private void bindViews() {
+        resolveDigits();
+        bindViews(Integer.MAX_VALUE);
+        scheduleTrim();
     }
 
-    private int getRequiredChildCount() {
-        return Math.max(mMinShown, mHide ? 0 : getIntLength(mNumber));
+    /**
+     * Binds the {@code count} least significant children to the digits already resolved.
+     */
+    private void bindViews(final int count) {
+        final long start = (mMetrics != null) ? System.nanoTime() : 0L;
+
+        Tracing.beginSection("NumberViewGroup#bindViews");
+        try {
+            bindDigits(count);
+        } finally {
+            Tracing.endSection();
+        }
+
+        if (mMetrics != null) {
+            mMetrics.onBind(System.nanoTime() - start);
+        }
     }
 
-    private void bindViews() {
+    private void bindDigits(final int count) {
 
-        final int size = getRequiredChildCount();
+        final int size = Math.max(mMinShown, mDigits.length());
+        final int end = Math.min(count, Math.max(size, getChildCount()));
 
-        for (int i = 0; i < size; i++) {
+        // Counts places from the least significant digit, skipping separators
+        int place = 0;
+        for (int i = 0; i < end; i++) {
 
             while (i >= getChildCount()) {
                 addNewChild();
             }
 
-            final NumberView child = getDigitAt(i);
-            final Digit d = resolveDigit(mNumber, i);
-
-            if (mPerformNow) {
-                child.showNow(d);
-            } else {
-                child.show(d);
+            // Unused children :'( are bound to the empty digit past the end of the number
+            final Digit digit = mDigits.get(i);
+            bindDigit(getDigitAt(i), digit, place < mSpinningDigits);
+            if (Character.isDigit(digit.getChar())) {
+                place++;
             }
         }
 
-        for (int i = size; i < getChildCount(); i++) {
-            // Unused children :'(
-            final NumberView child = getDigitAt(i);
-            if (mPerformNow) {
-                child.hideNow();
-            } else {
-                child.hide();
+        // Adding children already requests a layout, and each child requests its own layout
+        // and invalidation when its width or digit changes, so there is nothing to do here.
+    }
+
+    private void bindDigit(final NumberView child, final Digit digit, final boolean spin) {
+        // Leave alone digits whose value is unchanged
+        if (child.getDigit() == digit && (!mPerformNow || !child.isAnimating())) {
+            return;
+        }
+
+        if (mBinding || spin) {
+            child.bind(digit, false);
+        } else if (mPerformNow) {
+            child.showNow(digit);
+        } else {
+            child.show(digit);
+        }
+    }
+
+    private void scheduleTrim() {
+        scheduleTrim(false);
+    }
+
+    /**
+     * Removes digits that are no longer needed after the trim delay, or right away if
+     * {@code now} is set. Nothing is trimmed while the trim delay is negative.
+     */
+    private void scheduleTrim(final boolean now) {
+        removeCallbacks(mTrimRunnable);
+        if (mTrimDelay < 0 || getChildCount() <= getNeededChildCount()) {
+            return;
+        }
+
+        if (now) {
+            trimChildren();
+        } else {
+            postDelayed(mTrimRunnable, mTrimDelay);
+        }
+    }
+
+    private void trimChildren() {
+        removeCallbacks(mTrimRunnable);
+
+        while (getChildCount() > getNeededChildCount()) {
+            // Unused digits are the most significant ones, at the start of the layout
+            final NumberView child = (NumberView) getChildAt(0);
+            if (child.isAnimating()) {
+                // Let it finish hiding first
+                scheduleTrim();
+                return;
+            }
+
+            removeViewAt(0);
+            if (mPool != null) {
+                mPool.release(child);
             }
         }
+    }
 
-        requestLayout();
-        invalidate();
+    private int getNeededChildCount() {
+        return Math.max(mMinShown, mDigits.length());
     }
 
     public NumberView getDigitAt(final int index) {
@@ -126,40 +348,588 @@ public class NumberViewGroup extends LinearLayout {
     }
 
     public void show(final int number) {
+        show((long) number);
+    }
+
+    public void showNow(final int number) {
+        showNow((long) number);
+    }
+
+    public void show(final long number) {
+        show(number, 0);
+    }
+
+    public void showNow(final long number) {
+        showNow(number, 0);
+    }
+
+    /**
+     * Shows the fixed-point number {@code unscaled * 10^-scale}, so that
+     * {@code show(12345, 2)} displays "123.45".
+     */
+    public void show(final long unscaled, final int scale) {
+        DigitBuffer.checkScale(scale);
+        cancelCount();
         mHide = false;
-        mNumber = number;
+        mNumber = unscaled;
+        mScale = scale;
         mPerformNow = false;
+        mBinding = false;
         bindViews();
     }
 
-    public void showNow(final int number) {
+    public void showNow(final long unscaled, final int scale) {
+        DigitBuffer.checkScale(scale);
+        cancelCount();
+        mHide = false;
+        mNumber = unscaled;
+        mScale = scale;
+        mPerformNow = true;
+        mBinding = false;
+        bindViews();
+    }
+
+    /**
+     * Shows {@code number}, animating to it if {@code animate} is set. Otherwise every digit is
+     * shown without starting any animations, and digits that are no longer needed are trimmed
+     * right away, unless the trim delay is negative. Use this to rebind groups in recycled list
+     * items.
+     */
+    public void bind(final long number, final boolean animate) {
+        bind(number, 0, animate);
+    }
+
+    /**
+     * Shows the fixed-point number {@code unscaled * 10^-scale}, animating to it if
+     * {@code animate} is set.
+     *
+     * @see #bind(long, boolean)
+     */
+    public void bind(final long unscaled, final int scale, final boolean animate) {
+        if (animate) {
+            show(unscaled, scale);
+            return;
+        }
+
+        DigitBuffer.checkScale(scale);
+        cancelCount();
         mHide = false;
-        mNumber = number;
+        mNumber = unscaled;
+        mScale = scale;
         mPerformNow = true;
+        mBinding = true;
         bindViews();
+        scheduleTrim(true);
+    }
+
+    /**
+     * Counts from the number currently shown to {@code target} over {@code duration}
+     * milliseconds, showing the values in between along the way.
+     *
+     * @see #animateTo(long, int, long)
+     */
+    public void animateTo(final long target, final long duration) {
+        animateTo(target, 0, duration);
+    }
+
+    /**
+     * Counts from the number currently shown to the fixed-point number
+     * {@code unscaled * 10^-scale} over {@code duration} milliseconds.
+     * <p>
+     * Each frame shows only the value reached by that frame, and only digits whose value has
+     * changed are updated, so counting to ten million costs no more per frame than counting to
+     * ten. Digits that would change faster than they can morph are switched without animating
+     * instead, so low-order digits spin while high-order digits morph smoothly. Showing,
+     * binding or hiding a number stops counting.
+     */
+    public void animateTo(final long unscaled, final int scale, final long duration) {
+        DigitBuffer.checkScale(scale);
+        cancelCount();
+
+        // Hidden groups count up from nothing, and others from the shown value at the new scale
+        mCountFrom = mHide ? 0 : DigitBuffer.rescale(mNumber, mScale, scale);
+        mCountTo = unscaled;
+        mSpinningDigits = getSpinningDigitCount((double) mCountTo - mCountFrom, duration);
+        mHide = false;
+        mScale = scale;
+        mPerformNow = false;
+        mBinding = false;
+        mCounting = true;
+
+        final ValueAnimator animator = getCountAnimator();
+        animator.setDuration(duration);
+        animator.start();
+    }
+
+    public boolean isCounting() {
+        return mCounting;
+    }
+
+    private ValueAnimator getCountAnimator() {
+        if (mCountAnimator != null) {
+            return mCountAnimator;
+        }
+
+        mCountAnimator = ValueAnimator.ofFloat(0f, 1f);
+        mCountAnimator.setInterpolator(new DecelerateInterpolator());
+        mCountAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(final ValueAnimator animation) {
+                if (mCounting) {
+                    onCountFrame(animation.getAnimatedFraction());
+                }
+            }
+        });
+        mCountAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(final Animator animation) {
+                if (mCounting) {
+                    onCountFrame(1f);
+                    mCounting = false;
+                    mSpinningDigits = 0;
+                }
+            }
+        });
+        return mCountAnimator;
+    }
+
+    private void onCountFrame(final float fraction) {
+        // Precision is lost past 2^53 in between, but never at the ends
+        final long value = (fraction >= 1f)
+                ? mCountTo
+                : (long) (mCountFrom + ((double) mCountTo - mCountFrom) * fraction);
+
+        if (value != mNumber || mDigits.length() == 0) {
+            mNumber = value;
+            bindViews();
+        }
+    }
+
+    private void cancelCount() {
+        if (mCounting) {
+            mCounting = false;
+            mSpinningDigits = 0;
+            mCountAnimator.cancel();
+        }
+    }
+
+    private int getSpinningDigitCount(final double delta, final long duration) {
+        final long morphDuration = (mAnimationDuration >= 0)
+                ? mAnimationDuration
+                : NumberView.DEFAULT_ANIMATION_DURATION;
+
+        // Counting decelerates, so it is fastest right at the start, at twice its average rate
+        final double changesPerMorph = 2 * Math.abs(delta) * morphDuration / Math.max(1L, duration);
+
+        // The digit at each place changes ten times less often than the one before it
+        int count = 0;
+        for (double place = 1; changesPerMorph > place; place *= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Adds one to the number shown.
+     *
+     * @see #add(long)
+     */
+    public void advance() {
+        add(1);
+    }
+
+    /**
+     * Subtracts one from the number shown.
+     *
+     * @see #add(long)
+     */
+    public void decrement() {
+        add(-1);
+    }
+
+    /**
+     * Adds {@code delta} to the number shown, animating only the digits changed by carry or
+     * borrow propagation. Unlike {@link #show(long)}, the digits are not worked out again from
+     * scratch, so frequent small changes to large numbers stay cheap. Adding to a number that
+     * is being counted to with {@link #animateTo} changes where counting ends instead.
+     *
+     * @throws ArithmeticException if the result overflows a {@code long}
+     */
+    public void add(final long delta) {
+        if (mCounting) {
+            mCountTo = DigitBuffer.checkedAdd(mCountTo, delta);
+            return;
+        }
+
+        // Digits are laid out from scratch when hidden or when settings have changed
+        if (mHide || !mDigits.isLaidOut(getGlyphSet(), mGrouping, mMinShown)) {
+            show(DigitBuffer.checkedAdd(mNumber, delta), mScale);
+            return;
+        }
+
+        final int oldLength = mDigits.length();
+        final int changed = mDigits.add(delta);
+        mNumber += delta;
+        mPerformNow = false;
+        mBinding = false;
+        bindViews(changed);
+
+        if (mDigits.length() < oldLength) {
+            scheduleTrim();
+        }
     }
 
     public void hide() {
+        cancelCount();
         mHide = true;
         mPerformNow = false;
+        mBinding = false;
         bindViews();
     }
 
     public void hideNow() {
+        cancelCount();
         mHide = true;
         mPerformNow = true;
+        mBinding = false;
         bindViews();
     }
 
+    /**
+     * Separates every three digits of the integer part with a grouping separator, taking effect
+     * the next time a number is shown.
+     */
+    public void setGroupingUsed(final boolean grouping) {
+        mGrouping = grouping;
+    }
+
+    public boolean isGroupingUsed() {
+        return mGrouping;
+    }
+
     public void setMinimumNumbersShown(final int minimum) {
         mMinShown = minimum;
 
         while (getChildCount() < mMinShown) {
             addNewChild();
         }
+        scheduleTrim();
+    }
+
+    /**
+     * Drives every digit in this group from {@code clock}, so that they animate in lockstep.
+     *
+     * @see NumberView#setAnimationClock(AnimationClock)
+     */
+    public void setAnimationClock(final AnimationClock clock) {
+        mClock = clock;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setAnimationClock(clock);
+        }
+    }
+
+    /**
+     * Adapts the transitions of every digit in this group through {@code governor}.
+     *
+     * @see NumberView#setAnimationGovernor(AnimationGovernor)
+     */
+    public void setAnimationGovernor(final AnimationGovernor governor) {
+        mGovernor = governor;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setAnimationGovernor(governor);
+        }
+    }
+
+    /**
+     * Draws every digit in this group from {@code glyphSet}. Each digit shown morphs into the
+     * glyph for the same character in the new set.
+     *
+     * @see NumberView#setGlyphSet(GlyphSet)
+     */
+    public void setGlyphSet(final GlyphSet glyphSet) {
+        setGlyphSet(glyphSet, true);
+    }
+
+    /**
+     * Draws every digit in this group from {@code glyphSet}. Unless {@code animate} is set, any
+     * running transitions are cancelled and every digit is rebound without starting an animation.
+     *
+     * @see NumberView#setGlyphSet(GlyphSet, boolean)
+     */
+    public void setGlyphSet(final GlyphSet glyphSet, final boolean animate) {
+        mGlyphSet = glyphSet;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setGlyphSet(glyphSet, animate);
+        }
+    }
+
+    public GlyphSet getGlyphSet() {
+        return (mGlyphSet != null) ? mGlyphSet : Digits.getGlyphSet();
+    }
+
+    /**
+     * Draws idle digits in this group from {@code atlas}.
+     *
+     * @see NumberView#setGlyphAtlas(GlyphAtlas)
+     */
+    public void setGlyphAtlas(final GlyphAtlas atlas) {
+        mGlyphAtlas = atlas;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setGlyphAtlas(atlas);
+        }
+    }
+
+    /**
+     * Records draw times, transition statistics and bind times for this group into
+     * {@code metrics}.
+     *
+     * @see NumberView#setRenderMetrics(RenderMetrics)
+     */
+    public void setRenderMetrics(final RenderMetrics metrics) {
+        mMetrics = metrics;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setRenderMetrics(metrics);
+        }
+    }
+
+    public RenderMetrics getRenderMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * @see NumberView#setDebugHudEnabled(boolean)
+     */
+    public void setDebugHudEnabled(final boolean enabled) {
+        mDebugHudEnabled = enabled;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setDebugHudEnabled(enabled);
+        }
+    }
+
+    public boolean isDebugHudEnabled() {
+        return mDebugHudEnabled;
+    }
+
+    public void setMorphTable(final MorphTable morphTable) {
+        mMorphTable = morphTable;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setMorphTable(morphTable);
+        }
+    }
+
+    /**
+     * Applies {@code widthMode} to every digit in this group.
+     *
+     * @see NumberView#setWidthMode(int)
+     */
+    public void setWidthMode(final int widthMode) {
+        NumberView.checkWidthMode(widthMode);
+        mWidthMode = widthMode;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setWidthMode(widthMode);
+        }
+    }
+
+    public int getWidthMode() {
+        return mWidthMode;
+    }
+
+    /**
+     * Applies {@code renderMode} to every digit in this group.
+     *
+     * @see NumberView#setRenderMode(int)
+     */
+    public void setRenderMode(final int renderMode) {
+        mRenderMode = renderMode;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setRenderMode(renderMode);
+        }
+    }
+
+    public int getRenderMode() {
+        return mRenderMode;
+    }
+
+    /**
+     * Gives every digit the same fixed width so that a changing number never shifts the layout.
+     */
+    public void setTabular(final boolean tabular) {
+        setWidthMode(tabular ? NumberView.WIDTH_MODE_TABULAR : NumberView.WIDTH_MODE_ANIMATED);
+    }
+
+    public boolean isTabular() {
+        return mWidthMode == NumberView.WIDTH_MODE_TABULAR;
+    }
+
+    /**
+     * Shrinks digits as needed so that the whole number fits within the width given to this
+     * group, never growing them beyond {@code maxTextSize} pixels. A size of 0 disables this.
+     */
+    public void setAutoFitTextSize(final float maxTextSize) {
+        mAutoFitTextSize = Math.max(0, maxTextSize);
+        requestLayout();
+    }
+
+    public float getAutoFitTextSize() {
+        return mAutoFitTextSize;
+    }
+
+    /**
+     * Takes new digits from {@code pool} as the number grows, and returns trimmed digits to it,
+     * or always creates and discards digits if {@code null}.
+     */
+    public void setDigitViewPool(final DigitViewPool pool) {
+        mPool = pool;
+    }
+
+    public DigitViewPool getDigitViewPool() {
+        return mPool;
+    }
+
+    /**
+     * Sets how long digits that are no longer needed are kept, in milliseconds, before they
+     * are removed from this group. A negative delay keeps them indefinitely.
+     */
+    public void setTrimDelay(final long trimDelay) {
+        mTrimDelay = trimDelay;
+        scheduleTrim();
+    }
+
+    public long getTrimDelay() {
+        return mTrimDelay;
+    }
+
+    /**
+     * Sets the text size of every digit in this group, in pixels.
+     *
+     * @see NumberView#setTextSize(float)
+     */
+    public void setTextSize(final float textSize) {
+        mTextSize = textSize;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setTextSize(textSize);
+        }
+    }
+
+    public void setTextColor(final int color) {
+        mTextColor = color;
+        mHasTextColor = true;
+        for (int i = 0; i < getChildCount(); i++) {
+            final NumberView child = getDigitAt(i);
+            child.getPaint().setColor(color);
+            child.invalidate();
+        }
+    }
+
+    public void setDigitStrokeWidth(final float strokeWidth) {
+        mStrokeWidth = strokeWidth;
+        for (int i = 0; i < getChildCount(); i++) {
+            final NumberView child = getDigitAt(i);
+            child.getPaint().setStrokeWidth(strokeWidth);
+            child.invalidate();
+        }
+    }
+
+    /**
+     * @see NumberView#setAnimationDuration(long)
+     */
+    public void setAnimationDuration(final long duration) {
+        mAnimationDuration = duration;
+        for (int i = 0; i < getChildCount(); i++) {
+            getDigitAt(i).setAnimationDuration(duration);
+        }
     }
 
     public void setPaintProvider(final PaintProvider paintProvider) {
         mPaintProvider = paintProvider;
     }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        cancelAutoFit();
+
+        // Skip straight to the end rather than count while nothing can be seen
+        if (mCounting) {
+            mCountAnimator.end();
+        }
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        final SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.number = mCounting ? mCountTo : mNumber;
+        ss.scale = mScale;
+        ss.minShown = mMinShown;
+        ss.grouping = mGrouping;
+        ss.hide = mHide;
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        final SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        cancelCount();
+
+        // Restoring skips straight to the end of any transition that was running
+        mNumber = ss.number;
+        mScale = ss.scale;
+        mGrouping = ss.grouping;
+        mHide = ss.hide;
+        setMinimumNumbersShown(ss.minShown);
+        mPerformNow = true;
+        mBinding = true;
+        bindViews();
+    }
+
+    /**
+     * The state of the whole number, so that each digit need not save its own.
+     */
+    private static class SavedState extends BaseSavedState {
+        public long number;
+        public int scale;
+        public int minShown;
+        public boolean grouping;
+        public boolean hide;
+
+        private SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            number = in.readLong();
+            scale = in.readInt();
+            minShown = in.readInt();
+            grouping = in.readInt() != 0;
+            hide = in.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(number);
+            out.writeInt(scale);
+            out.writeInt(minShown);
+            out.writeInt(grouping ? 1 : 0);
+            out.writeInt(hide ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+    }
 }
@@ -0,0 +1,219 @@
+package com.deange.numberview;
+
+import android.view.View;
+
+import java.util.Locale;
+import java.util.WeakHashMap;
+
+/**
+ * Collects rendering statistics from the views it is attached to, to find out why a screen
+ * full of digits drops frames.
+ * <p>
+ * Attach one to views with {@link NumberView#setRenderMetrics} or
+ * {@link NumberViewGroup#setRenderMetrics}, or use {@link #getDefault()} for a process-wide
+ * one. Draw times are kept both in aggregate and per view. Metrics must only be used from the
+ * main thread.
+ */
+public final class RenderMetrics {
+
+    private static RenderMetrics sDefault;
+
+    private final Histogram mDrawTimes = new Histogram();
+    private final Histogram mBindTimes = new Histogram();
+    private final Histogram mTransitionFrames = new Histogram();
+    private final WeakHashMap<View, Histogram> mViewDrawTimes = new WeakHashMap<>();
+
+    private long mTransitions;
+    private long mRestarts;
+    private long mLayoutRequests;
+
+    public static RenderMetrics getDefault() {
+        if (sDefault == null) {
+            sDefault = new RenderMetrics();
+        }
+        return sDefault;
+    }
+
+    /**
+     * Time spent in {@code NumberView.onDraw} across all views, in microseconds.
+     */
+    public Histogram getDrawTimes() {
+        return mDrawTimes;
+    }
+
+    /**
+     * Time spent in {@code onDraw} by {@code view}, in microseconds, or {@code null} if it has
+     * not drawn since these metrics were attached or reset.
+     */
+    public Histogram getDrawTimes(final View view) {
+        return mViewDrawTimes.get(view);
+    }
+
+    /**
+     * Time spent by {@code NumberViewGroup} binding digits to its children, in microseconds.
+     */
+    public Histogram getBindTimes() {
+        return mBindTimes;
+    }
+
+    /**
+     * Frames drawn per transition. A transition that is retargeted before it ends is counted
+     * once, including the frames drawn after it was retargeted.
+     */
+    public Histogram getFramesPerTransition() {
+        return mTransitionFrames;
+    }
+
+    /**
+     * The number of transitions started, including restarts.
+     */
+    public long getTransitionCount() {
+        return mTransitions;
+    }
+
+    /**
+     * The number of transitions restarted towards a new digit before they had ended.
+     */
+    public long getRestartCount() {
+        return mRestarts;
+    }
+
+    /**
+     * The number of layout passes requested by digits whose width was animating.
+     */
+    public long getLayoutRequestCount() {
+        return mLayoutRequests;
+    }
+
+    public void reset() {
+        mDrawTimes.reset();
+        mBindTimes.reset();
+        mTransitionFrames.reset();
+        mViewDrawTimes.clear();
+        mTransitions = 0;
+        mRestarts = 0;
+        mLayoutRequests = 0;
+    }
+
+    /* package */ void onDraw(final View view, final long nanos) {
+        final long micros = nanos / 1000L;
+        mDrawTimes.record(micros);
+
+        Histogram viewDrawTimes = mViewDrawTimes.get(view);
+        if (viewDrawTimes == null) {
+            viewDrawTimes = new Histogram();
+            mViewDrawTimes.put(view, viewDrawTimes);
+        }
+        viewDrawTimes.record(micros);
+    }
+
+    /* package */ void onBind(final long nanos) {
+        mBindTimes.record(nanos / 1000L);
+    }
+
+    /* package */ void onTransitionStarted() {
+        mTransitions++;
+    }
+
+    /* package */ void onTransitionRestarted() {
+        mRestarts++;
+    }
+
+    /* package */ void onTransitionEnded(final int frames) {
+        mTransitionFrames.record(frames);
+    }
+
+    /* package */ void onLayoutRequested() {
+        mLayoutRequests++;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderMetrics{"
+                + "draw=" + mDrawTimes
+                + ", bind=" + mBindTimes
+                + ", framesPerTransition=" + mTransitionFrames
+                + ", transitions=" + mTransitions
+                + ", restarts=" + mRestarts
+                + ", layoutRequests=" + mLayoutRequests
+                + "}";
+    }
+
+    /**
+     * A histogram of non-negative values in power-of-two buckets. Bucket 0 counts zeros, and
+     * bucket {@code i} counts values from {@code 2^(i-1)} up to {@code 2^i - 1}.
+     */
+    public static final class Histogram {
+
+        private static final int BUCKETS = 32;
+
+        private final long[] mBuckets = new long[BUCKETS];
+        private long mCount;
+        private long mTotal;
+        private long mMax;
+
+        /* package */ void record(final long value) {
+            final long clamped = Math.max(0, value);
+            final int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(clamped));
+            mBuckets[bucket]++;
+            mCount++;
+            mTotal += clamped;
+            mMax = Math.max(mMax, clamped);
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        public long getTotal() {
+            return mTotal;
+        }
+
+        public long getMax() {
+            return mMax;
+        }
+
+        public long getMean() {
+            return (mCount == 0) ? 0 : mTotal / mCount;
+        }
+
+        /**
+         * An upper bound on the value below which {@code percentile} percent of values fall.
+         */
+        public long getPercentile(final float percentile) {
+            if (mCount == 0) return 0;
+
+            final long rank = (long) Math.ceil(mCount * Math.max(0f, Math.min(100f, percentile)) / 100f);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += mBuckets[i];
+                if (seen >= rank && mBuckets[i] > 0) {
+                    return Math.min(mMax, (i == 0) ? 0 : (1L << i) - 1);
+                }
+            }
+            return mMax;
+        }
+
+        /**
+         * A copy of the count in each bucket.
+         */
+        public long[] getBuckets() {
+            return mBuckets.clone();
+        }
+
+        public void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mTotal = 0;
+            mMax = 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "{count=%d, mean=%d, p50=%d, p90=%d, p99=%d, max=%d}",
+                    mCount, getMean(), getPercentile(50), getPercentile(90), getPercentile(99), mMax);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.deange.numberview;
+
+import android.graphics.Paint;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Process-wide cache of text measurements used to size {@link NumberView}s.
+ * <p>
+ * Both lookups are keyed by every property of the paint that changes how wide text is drawn,
+ * so views sharing a font and text style share results.
+ */
+/* package */ final class TextSizes {
+
+    // "8" is used since it constitutes the widest number drawn
+    /* package */ static final String MEASURING_TEXT = "8";
+
+    private static final int MAX_SIZE = 64;
+
+    private static final Map<Key, Float> WIDTHS = new LruMap<>();
+    private static final Map<Key, Float> FITS = new LruMap<>();
+
+    private TextSizes() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns the width of {@link #MEASURING_TEXT} drawn with {@code paint}.
+     */
+    public static float measure(final Paint paint) {
+        final Key key = new Key(paint, paint.getTextSize());
+        synchronized (WIDTHS) {
+            final Float width = WIDTHS.get(key);
+            if (width != null) {
+                return width;
+            }
+        }
+
+        final float width = paint.measureText(MEASURING_TEXT);
+        synchronized (WIDTHS) {
+            WIDTHS.put(key, width);
+        }
+        return width;
+    }
+
+    /**
+     * Returns the largest whole sp text size, in pixels, for which {@link #MEASURING_TEXT}
+     * drawn with {@code paint} is narrower than {@code targetWidth}. The text size of
+     * {@code paint} is not modified.
+     */
+    public static float fit(final Paint paint, final DisplayMetrics metrics, final float targetWidth) {
+        final float spPx = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 1, metrics);
+        final Key key = new Key(paint, spPx, targetWidth);
+        synchronized (FITS) {
+            final Float size = FITS.get(key);
+            if (size != null) {
+                return size;
+            }
+        }
+
+        final float size = spPx * fitSp(new Paint(paint), spPx, targetWidth);
+        synchronized (FITS) {
+            FITS.put(key, size);
+        }
+        return size;
+    }
+
+    private static int fitSp(final Paint scratch, final float spPx, final float targetWidth) {
+        // Text width is very nearly proportional to text size, so estimate from a single
+        // measurement and then correct for any rounding in the font's metrics.
+        final float widthPerSp = widthAt(scratch, spPx, 1);
+        if (widthPerSp <= 0) {
+            return 1;
+        }
+
+        int sp = Math.max(1, (int) Math.ceil(targetWidth / widthPerSp) - 1);
+        while (widthAt(scratch, spPx, sp + 1) < targetWidth) {
+            sp++;
+        }
+        while (sp > 1 && widthAt(scratch, spPx, sp) >= targetWidth) {
+            sp--;
+        }
+        return sp;
+    }
+
+    private static float widthAt(final Paint scratch, final float spPx, final int sp) {
+        scratch.setTextSize(sp * spPx);
+        return scratch.measureText(MEASURING_TEXT);
+    }
+
+    private static final class Key {
+        private final Object mTypeface;
+        private final int mFlags;
+        private final int mHinting;
+        private final float mTextScaleX;
+        private final float mTextSkewX;
+        private final float mLetterSpacing;
+        private final String mFontFeatureSettings;
+        private final Locale mTextLocale;
+        private final float mValue0;
+        private final float mValue1;
+
+        Key(final Paint paint, final float value) {
+            this(paint, value, 0);
+        }
+
+        Key(final Paint paint, final float value0, final float value1) {
+            mTypeface = paint.getTypeface();
+            mFlags = paint.getFlags();
+            mHinting = paint.getHinting();
+            mTextScaleX = paint.getTextScaleX();
+            mTextSkewX = paint.getTextSkewX();
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                mLetterSpacing = paint.getLetterSpacing();
+                mFontFeatureSettings = paint.getFontFeatureSettings();
+            } else {
+                mLetterSpacing = 0;
+                mFontFeatureSettings = null;
+            }
+            mTextLocale = (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1)
+                    ? paint.getTextLocale()
+                    : null;
+
+            mValue0 = value0;
+            mValue1 = value1;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key key = (Key) o;
+            return mTypeface == key.mTypeface
+                    && mFlags == key.mFlags
+                    && mHinting == key.mHinting
+                    && Float.compare(mTextScaleX, key.mTextScaleX) == 0
+                    && Float.compare(mTextSkewX, key.mTextSkewX) == 0
+                    && Float.compare(mLetterSpacing, key.mLetterSpacing) == 0
+                    && equal(mFontFeatureSettings, key.mFontFeatureSettings)
+                    && equal(mTextLocale, key.mTextLocale)
+                    && Float.compare(mValue0, key.mValue0) == 0
+                    && Float.compare(mValue1, key.mValue1) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(mTypeface);
+            result = 31 * result + mFlags;
+            result = 31 * result + mHinting;
+            result = 31 * result + Float.floatToIntBits(mTextScaleX);
+            result = 31 * result + Float.floatToIntBits(mTextSkewX);
+            result = 31 * result + Float.floatToIntBits(mLetterSpacing);
+            result = 31 * result + ((mFontFeatureSettings != null) ? mFontFeatureSettings.hashCode() : 0);
+            result = 31 * result + ((mTextLocale != null) ? mTextLocale.hashCode() : 0);
+            result = 31 * result + Float.floatToIntBits(mValue0);
+            result = 31 * result + Float.floatToIntBits(mValue1);
+            return result;
+        }
+
+        private static boolean equal(final Object a, final Object b) {
+            return (a == null) ? (b == null) : a.equals(b);
+        }
+    }
+
+    private static final class LruMap<V> extends LinkedHashMap<Key, V> {
+        LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, V> eldest) {
+            return size() > MAX_SIZE;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.deange.numberview;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Trace sections that show up in systrace and Perfetto, on API levels that support them.
+ */
+/* package */ final class Tracing {
+
+    private static final boolean ENABLED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    private Tracing() {
+        throw new AssertionError();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    public static void beginSection(final String name) {
+        if (ENABLED) {
+            Trace.beginSection(name);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    public static void endSection() {
+        if (ENABLED) {
+            Trace.endSection();
+        }
+    }
+}
@@ -12,11 +12,13 @@ public class MainActivity extends ListActivity {
     private static final String[] TYPES = {
             "NumberView",
             "NumberViewGroup",
+            "NumberTextView",
     };
 
     private static final Class[] ACTIVITIES = new Class[]{
             NumberActivity.class,
             NumberGroupActivity.class,
+            NumberTextActivity.class,
     };
 
     @Override